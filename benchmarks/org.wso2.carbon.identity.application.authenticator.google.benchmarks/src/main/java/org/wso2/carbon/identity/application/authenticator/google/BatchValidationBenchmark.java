@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.application.authentication.framework.exception.AuthenticationFailedException;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.CredentialValidationRequest;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.CredentialValidationResult;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Utils#validateGoogleJWTs} for batches of valid RS256 and ES256 One Tap credentials at increasing
+ * parallelism, against validating the same credentials one by one with {@link Utils#validateGoogleJWT}. The batch
+ * throughput is expected to grow close to linearly with the parallelism, up to the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchValidationBenchmark {
+
+    private static final String NONCE = "benchmark-nonce";
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"64", "512"})
+    private int batchSize;
+
+    private GoogleStubServer server;
+    private List<CredentialValidationRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        server = new GoogleStubServer(new GoogleTestKeys());
+        server.start();
+        Map<String, String> parameters = new HashMap<>(server.getAuthenticatorParameters());
+        parameters.put(GoogleOAuth2AuthenticationConstant.JWT_BATCH_VALIDATION_PARALLELISM,
+                String.valueOf(parallelism));
+        Utils.configureJWTValidation(parameters);
+
+        GoogleTestKeys keys = server.getKeys();
+        requests = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            JWSAlgorithm algorithm = i % 2 == 0 ? JWSAlgorithm.RS256 : JWSAlgorithm.ES256;
+            requests.add(new CredentialValidationRequest(keys.issue(algorithm, BenchmarkSupport.CLIENT_ID, NONCE,
+                    TimeUnit.HOURS.toMillis(1)), BenchmarkSupport.CLIENT_ID, NONCE, true));
+        }
+
+        for (CredentialValidationResult result : Utils.validateGoogleJWTs(requests)) {
+            if (!result.isValid()) {
+                throw new IllegalStateException("A valid credential was rejected : " + result.getErrorMessage());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        server.stop();
+    }
+
+    @Benchmark
+    public List<CredentialValidationResult> batch() {
+
+        return Utils.validateGoogleJWTs(requests);
+    }
+
+    @Benchmark
+    public int sequential() throws AuthenticationFailedException {
+
+        int valid = 0;
+        for (CredentialValidationRequest request : requests) {
+            if (Utils.validateGoogleJWT(request.getCredential(), request.getAudience(), request.getNonce(),
+                    request.isInternalSubmission())) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
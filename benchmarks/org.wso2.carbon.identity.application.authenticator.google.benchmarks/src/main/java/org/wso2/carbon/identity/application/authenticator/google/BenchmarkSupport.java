@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import org.wso2.carbon.identity.application.authentication.framework.config.model.AuthenticatorConfig;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Builds authenticators and requests for the benchmarks without a running Carbon server.
+ */
+public final class BenchmarkSupport {
+
+    public static final String CLIENT_ID = "benchmark-client.apps.googleusercontent.com";
+    public static final String CLIENT_SECRET = "benchmark-client-secret";
+    public static final String CALLBACK_URL = "https://localhost:9443/commonauth";
+    public static final String CLAIM_DIALECT_URI = "http://wso2.org/oidc/claim";
+
+    private BenchmarkSupport() {
+
+    }
+
+    /**
+     * Create an authenticator which uses the given parameters instead of the file based configuration.
+     *
+     * @param parameters Authenticator parameter map.
+     * @return The authenticator.
+     */
+    public static GoogleOAuth2Authenticator createAuthenticator(Map<String, String> parameters) {
+
+        AuthenticatorConfig authenticatorConfig = new AuthenticatorConfig();
+        authenticatorConfig.setParameterMap(parameters);
+        GoogleOAuth2Authenticator authenticator = new GoogleOAuth2Authenticator();
+        authenticator.setConfig(new GoogleAuthenticatorConfig(authenticatorConfig, CLAIM_DIALECT_URI));
+        return authenticator;
+    }
+
+    /**
+     * Create a POST request to the common auth endpoint with the given parameters and cookies. Only the methods
+     * used by the authenticator are answered, the others return null.
+     *
+     * @param parameters Request parameters.
+     * @param cookies    Request cookies.
+     * @return The request.
+     */
+    public static HttpServletRequest createRequest(Map<String, String> parameters, Cookie... cookies) {
+
+        return (HttpServletRequest) Proxy.newProxyInstance(BenchmarkSupport.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getCookies":
+                            return cookies.length == 0 ? null : cookies;
+                        case "getParameter":
+                            return parameters.get((String) args[0]);
+                        case "getParameterValues":
+                            String value = parameters.get((String) args[0]);
+                            return value == null ? null : new String[]{value};
+                        case "getParameterMap":
+                            return Collections.unmodifiableMap(parameters);
+                        case "getMethod":
+                            return "POST";
+                        case "toString":
+                            return "BenchmarkRequest" + parameters.keySet();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /**
+     * Create a response which keeps the location the authenticator redirects the browser to. The other methods do
+     * nothing and return null.
+     *
+     * @param redirectLocation Receives the redirect location.
+     * @return The response.
+     */
+    public static HttpServletResponse createResponse(AtomicReference<String> redirectLocation) {
+
+        return (HttpServletResponse) Proxy.newProxyInstance(BenchmarkSupport.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "sendRedirect":
+                            redirectLocation.set((String) args[0]);
+                            return null;
+                        case "toString":
+                            return "BenchmarkResponse";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.application.authentication.framework.exception.AuthenticationFailedException;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Benchmarks the CSRF double submit cookie validation of Google One Tap for matching and mismatching tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSRFValidationBenchmark {
+
+    private static final String G_CSRF_TOKEN = "g_csrf_token";
+
+    private GoogleOAuth2Authenticator authenticator;
+    private HttpServletRequest validRequest;
+    private HttpServletRequest invalidRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        authenticator = BenchmarkSupport.createAuthenticator(Collections.<String, String>emptyMap());
+        validRequest = createRequest("4f2c1d8e9a7b6c5d", "4f2c1d8e9a7b6c5d");
+        invalidRequest = createRequest("4f2c1d8e9a7b6c5d", "0000000000000000");
+    }
+
+    @Benchmark
+    public boolean valid() throws AuthenticationFailedException {
+
+        authenticator.validateCSRF(validRequest, BenchmarkSupport.CLIENT_ID);
+        return true;
+    }
+
+    @Benchmark
+    public boolean mismatch() {
+
+        try {
+            authenticator.validateCSRF(invalidRequest, BenchmarkSupport.CLIENT_ID);
+            return true;
+        } catch (AuthenticationFailedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Create a request carrying the CSRF token in a cookie and in a parameter, as posted by Google One Tap.
+     */
+    private static HttpServletRequest createRequest(String cookieValue, String parameterValue) {
+
+        return BenchmarkSupport.createRequest(Collections.singletonMap(G_CSRF_TOKEN, parameterValue),
+                new Cookie("JSESSIONID", "benchmark-session"), new Cookie(G_CSRF_TOKEN, cookieValue));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import net.minidev.json.JSONArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.application.common.model.ClaimMapping;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link GoogleOAuth2Authenticator#buildClaimMappings} for a Google user with an array claim of the
+ * given size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClaimMappingBenchmark {
+
+    private static final String SEPARATOR = ",";
+
+    @Param({"4", "256"})
+    private int arraySize;
+
+    private GoogleOAuth2Authenticator authenticator;
+    private Map<String, Object> userClaims;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        authenticator = BenchmarkSupport.createAuthenticator(Collections.<String, String>emptyMap());
+        userClaims = new LinkedHashMap<>();
+        userClaims.put("sub", GoogleTestKeys.SUBJECT);
+        userClaims.put("email", GoogleTestKeys.EMAIL);
+        userClaims.put("email_verified", Boolean.TRUE);
+        userClaims.put("name", "Test User");
+        userClaims.put("locale", "en");
+        JSONArray groups = new JSONArray();
+        for (int i = 0; i < arraySize; i++) {
+            groups.add("group-" + i);
+        }
+        userClaims.put("groups", groups);
+    }
+
+    @Benchmark
+    public Map<ClaimMapping, String> buildClaimMappings() {
+
+        Map<ClaimMapping, String> claims = new HashMap<>();
+        for (Map.Entry<String, Object> entry : userClaims.entrySet()) {
+            authenticator.buildClaimMappings(claims, entry, SEPARATOR);
+        }
+        return claims;
+    }
+}
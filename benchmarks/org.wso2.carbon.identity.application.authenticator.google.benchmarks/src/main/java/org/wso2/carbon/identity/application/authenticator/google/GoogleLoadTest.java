@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import org.wso2.carbon.identity.application.authentication.framework.AuthenticatorFlowStatus;
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleHttpClient;
+import org.wso2.carbon.identity.application.authenticator.google.metrics.GoogleAuthenticatorMetrics;
+import org.wso2.carbon.identity.application.authenticator.oidc.OIDCAuthenticatorConstants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Drives the authorization code flow and the One Tap flow of {@link GoogleOAuth2Authenticator} concurrently against
+ * a local {@link GoogleStubServer}, and reports the p50/p99 latency and the throughput of each flow phase. Both
+ * flows go through {@link GoogleOAuth2Authenticator#process}, as the authentication framework calls it, and the
+ * phases timed inside the authenticator are reported from its metrics.
+ * <p>
+ * Arguments are given as name=value pairs:
+ * <ul>
+ * <li>threads: number of concurrent users, 16 by default.</li>
+ * <li>iterations: number of flows each user runs, 500 by default.</li>
+ * <li>flow: code, onetap or all, all by default.</li>
+ * <li>latency: latency in milliseconds added to each stand-in endpoint, 0 by default.</li>
+ * <li>errorRate: fraction of the stand-in token and user info requests failing, 0 by default.</li>
+ * </ul>
+ * For example: java -cp benchmarks.jar org.wso2.carbon.identity.application.authenticator.google.GoogleLoadTest
+ * threads=64 latency=20
+ */
+public final class GoogleLoadTest {
+
+    private static final String CODE_FLOW = "code";
+    private static final String ONE_TAP_FLOW = "onetap";
+
+    private final GoogleStubServer server;
+    private final GoogleOAuth2Authenticator authenticator;
+    private final Map<String, String> authenticatorProperties = new HashMap<>();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    private GoogleLoadTest(GoogleStubServer server) {
+
+        this.server = server;
+        this.authenticator = BenchmarkSupport.createAuthenticator(server.getAuthenticatorParameters());
+        authenticatorProperties.put(OIDCAuthenticatorConstants.CLIENT_ID, BenchmarkSupport.CLIENT_ID);
+        authenticatorProperties.put(OIDCAuthenticatorConstants.CLIENT_SECRET, BenchmarkSupport.CLIENT_SECRET);
+        authenticatorProperties.put(OIDCAuthenticatorConstants.CALLBACK_URL, BenchmarkSupport.CALLBACK_URL);
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "500"));
+        String flow = options.getOrDefault("flow", "all");
+        long latency = Long.parseLong(options.getOrDefault("latency", "0"));
+        double errorRate = Double.parseDouble(options.getOrDefault("errorRate", "0"));
+
+        GoogleStubServer server = new GoogleStubServer(new GoogleTestKeys());
+        for (String endpoint : new String[]{GoogleStubServer.AUTHORIZE, GoogleStubServer.TOKEN,
+                GoogleStubServer.USER_INFO, GoogleStubServer.JWKS_RS256, GoogleStubServer.JWKS_ES256}) {
+            boolean injectErrors = GoogleStubServer.TOKEN.equals(endpoint) ||
+                    GoogleStubServer.USER_INFO.equals(endpoint);
+            server.setFault(endpoint, latency, injectErrors ? errorRate : 0);
+        }
+        server.start();
+        try {
+            GoogleLoadTest loadTest = new GoogleLoadTest(server);
+            // A single untimed pass loads the keys, the connections and the classes.
+            loadTest.runFlow(flow);
+            long elapsed = loadTest.run(flow, threads, iterations);
+            System.out.println("Ran " + threads * iterations + " flows on " + threads + " threads in " +
+                    TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms.");
+            System.out.print(loadTest.recorder.report(elapsed));
+            System.out.print(LatencyRecorder.report(GoogleAuthenticatorMetrics.getInstance(), elapsed));
+        } finally {
+            GoogleHttpClient.getInstance().shutdown();
+            server.stop();
+        }
+    }
+
+    private long run(String flow, int threads, int iterations) throws InterruptedException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < iterations; j++) {
+                        runFlow(flow);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        recorder.clear();
+        GoogleAuthenticatorMetrics.getInstance().reset();
+        long startTime = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - startTime;
+        executor.shutdown();
+        return elapsed;
+    }
+
+    private void runFlow(String flow) {
+
+        if (!ONE_TAP_FLOW.equals(flow)) {
+            runCodeFlow();
+        }
+        if (!CODE_FLOW.equals(flow)) {
+            runOneTapFlow();
+        }
+    }
+
+    /**
+     * Sign in with the authorization code flow: the authenticator redirects the browser to the authorize endpoint,
+     * which redirects it back with a code, and the authenticator processes the callback, exchanging the code for
+     * tokens and resolving the user claims.
+     */
+    private void runCodeFlow() {
+
+        AuthenticationContext context = createContext();
+        AtomicReference<String> redirectLocation = new AtomicReference<>();
+        long startTime = System.nanoTime();
+        AuthenticatorFlowStatus status = process(BenchmarkSupport.createRequest(new HashMap<>()),
+                BenchmarkSupport.createResponse(redirectLocation), context);
+        boolean redirected = status == AuthenticatorFlowStatus.INCOMPLETE && redirectLocation.get() != null;
+        recorder.record("code.initiate", System.nanoTime() - startTime, redirected);
+        if (!redirected) {
+            return;
+        }
+
+        startTime = System.nanoTime();
+        Map<String, String> callbackParameters = null;
+        try {
+            callbackParameters = authorize(redirectLocation.get());
+        } catch (IOException e) {
+            // Recorded as an error below.
+        }
+        recorder.record("code.authorize", System.nanoTime() - startTime, callbackParameters != null);
+        if (callbackParameters == null) {
+            return;
+        }
+
+        startTime = System.nanoTime();
+        status = process(BenchmarkSupport.createRequest(callbackParameters),
+                BenchmarkSupport.createResponse(new AtomicReference<>()), context);
+        recorder.record("code.callback", System.nanoTime() - startTime,
+                status == AuthenticatorFlowStatus.SUCCESS_COMPLETED);
+    }
+
+    /**
+     * Sign in with One Tap: Google posts a credential which the authenticator validates before resolving the user
+     * claims from it.
+     */
+    private void runOneTapFlow() {
+
+        AuthenticationContext context = createContext();
+        String nonce = UUID.randomUUID().toString();
+        String credential;
+        try {
+            credential = server.issueOneTapCredential(JWSAlgorithm.RS256, BenchmarkSupport.CLIENT_ID, nonce);
+        } catch (Exception e) {
+            recorder.record("onetap.callback", 0, false);
+            return;
+        }
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("one_tap_enabled", "true");
+        parameters.put("internal_submission", "true");
+        parameters.put("credential", credential);
+        parameters.put(GoogleOAuth2Authenticator.STATE, nonce);
+
+        long startTime = System.nanoTime();
+        AuthenticatorFlowStatus status = process(BenchmarkSupport.createRequest(parameters),
+                BenchmarkSupport.createResponse(new AtomicReference<>()), context);
+        recorder.record("onetap.callback", System.nanoTime() - startTime,
+                status == AuthenticatorFlowStatus.SUCCESS_COMPLETED);
+    }
+
+    /**
+     * Hand a request to the authenticator the way the authentication framework does.
+     *
+     * @return The status of the flow, or null if the authenticator failed.
+     */
+    private AuthenticatorFlowStatus process(HttpServletRequest request, HttpServletResponse response,
+                                            AuthenticationContext context) {
+
+        try {
+            return authenticator.process(request, response, context);
+        } catch (Exception e) {
+            // Failures are recorded as errors by the callers.
+            return null;
+        }
+    }
+
+    /**
+     * Follow the redirect to the authorize endpoint and get the parameters of the redirect back to the callback URL.
+     *
+     * @param authorizeURL Authorization URL the authenticator redirected to.
+     * @return The callback parameters, or null if the authorize endpoint did not redirect back with a code.
+     */
+    private static Map<String, String> authorize(String authorizeURL) throws IOException {
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(authorizeURL).openConnection();
+        connection.setInstanceFollowRedirects(false);
+        int responseCode = connection.getResponseCode();
+        // Drain the response so that the connection is kept alive for the next user.
+        try (InputStream response = responseCode >= HttpURLConnection.HTTP_BAD_REQUEST ?
+                connection.getErrorStream() : connection.getInputStream()) {
+            if (response != null) {
+                while (response.read() != -1) {
+                    // Discard the body.
+                }
+            }
+        }
+        String location = connection.getHeaderField("Location");
+        if (responseCode != HttpURLConnection.HTTP_MOVED_TEMP || location == null || location.indexOf('?') < 0) {
+            return null;
+        }
+        Map<String, String> parameters = new HashMap<>();
+        for (String pair : location.substring(location.indexOf('?') + 1).split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), "UTF-8"),
+                        URLDecoder.decode(pair.substring(separator + 1), "UTF-8"));
+            }
+        }
+        return parameters.containsKey(OIDCAuthenticatorConstants.OAUTH2_GRANT_TYPE_CODE) ? parameters : null;
+    }
+
+    private AuthenticationContext createContext() {
+
+        AuthenticationContext context = new AuthenticationContext();
+        context.setContextIdentifier(UUID.randomUUID().toString());
+        context.setAuthenticatorProperties(authenticatorProperties);
+        return context;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An embeddable local stand-in for the Google OpenID Connect endpoints, so that the authenticator can be benchmarked
+ * and load tested without reaching Google. It serves the authorize, token, user info and RS256/ES256 JWKS
+ * endpoints, issues ID tokens and One Tap credentials signed by {@link GoogleTestKeys}, and can add latency to and
+ * inject errors into each endpoint.
+ */
+public class GoogleStubServer {
+
+    public static final String AUTHORIZE = "/authorize";
+    public static final String TOKEN = "/token";
+    public static final String USER_INFO = "/userinfo";
+    public static final String JWKS_RS256 = "/jwks/rs256";
+    public static final String JWKS_ES256 = "/jwks/es256";
+
+    public static final String USER_INFO_RESPONSE = "{\"sub\":\"" + GoogleTestKeys.SUBJECT + "\",\"email\":\"" +
+            GoogleTestKeys.EMAIL + "\",\"email_verified\":true,\"name\":\"Test User\",\"given_name\":\"Test\"," +
+            "\"family_name\":\"User\",\"picture\":\"https://example.com/user.png\",\"locale\":\"en\"}";
+
+    private static final long ID_TOKEN_LIFETIME = TimeUnit.HOURS.toMillis(1);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final GoogleTestKeys keys;
+    private final Map<String, AuthorizationCode> authorizationCodes = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> accessTokens = new ConcurrentHashMap<>();
+    private final Map<String, Fault> faults = new ConcurrentHashMap<>();
+
+    public GoogleStubServer(GoogleTestKeys keys) throws IOException {
+
+        this.keys = keys;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "google-stub-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        createContext(AUTHORIZE, this::authorize);
+        createContext(TOKEN, this::token);
+        createContext(USER_INFO, this::userInfo);
+        createContext(JWKS_RS256, exchange -> respond(exchange, 200, keys.getJWKSet(JWSAlgorithm.RS256)));
+        createContext(JWKS_ES256, exchange -> respond(exchange, 200, keys.getJWKSet(JWSAlgorithm.ES256)));
+    }
+
+    public void start() {
+
+        server.start();
+    }
+
+    public void stop() {
+
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public GoogleTestKeys getKeys() {
+
+        return keys;
+    }
+
+    public String getBaseURL() {
+
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Add latency to and inject errors into an endpoint.
+     *
+     * @param endpoint  Path of the endpoint, e.g. {@link #TOKEN}.
+     * @param latency   Time in milliseconds to wait before responding.
+     * @param errorRate Fraction of the requests, between 0 and 1, answered with a 503 error.
+     */
+    public void setFault(String endpoint, long latency, double errorRate) {
+
+        faults.put(endpoint, new Fault(latency, errorRate));
+    }
+
+    /**
+     * Get the authenticator parameters pointing the Google endpoints to this server.
+     *
+     * @return Authenticator parameter map.
+     */
+    public Map<String, String> getAuthenticatorParameters() {
+
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put(GoogleOAuth2AuthenticationConstant.GOOGLE_AUTHZ_ENDPOINT, getBaseURL() + AUTHORIZE);
+        parameters.put(GoogleOAuth2AuthenticationConstant.GOOGLE_TOKEN_ENDPOINT, getBaseURL() + TOKEN);
+        parameters.put(GoogleOAuth2AuthenticationConstant.GOOGLE_USERINFO_ENDPOINT, getBaseURL() + USER_INFO);
+        parameters.put(GoogleOAuth2AuthenticationConstant.GOOGLE_JWKS_RS256_ENDPOINT, getBaseURL() + JWKS_RS256);
+        parameters.put(GoogleOAuth2AuthenticationConstant.GOOGLE_JWKS_ES256_ENDPOINT, getBaseURL() + JWKS_ES256);
+        // Keep the fetched keys out of the server's data directory.
+        parameters.put(GoogleOAuth2AuthenticationConstant.JWKS_SNAPSHOT_DIRECTORY,
+                System.getProperty("java.io.tmpdir"));
+        return parameters;
+    }
+
+    /**
+     * Issue an access token accepted by the user info endpoint.
+     *
+     * @return The access token.
+     */
+    public String issueAccessToken() {
+
+        String accessToken = "ya29." + UUID.randomUUID();
+        accessTokens.put(accessToken, Boolean.TRUE);
+        return accessToken;
+    }
+
+    /**
+     * Issue a One Tap credential, as Google posts it to the relying party.
+     *
+     * @param algorithm Signing algorithm.
+     * @param clientId  Client ID the credential is issued to.
+     * @param nonce     Nonce sent when the One Tap prompt was displayed.
+     * @return The credential.
+     * @throws JOSEException If signing fails.
+     */
+    public String issueOneTapCredential(JWSAlgorithm algorithm, String clientId, String nonce)
+            throws JOSEException {
+
+        return keys.issue(algorithm, clientId, nonce, ID_TOKEN_LIFETIME);
+    }
+
+    /**
+     * Redirect back to the relying party with an authorization code, as if the user signed in and consented.
+     */
+    private void authorize(HttpExchange exchange) throws IOException {
+
+        Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+        String redirectURI = parameters.get("redirect_uri");
+        String clientId = parameters.get("client_id");
+        if (redirectURI == null || clientId == null) {
+            respond(exchange, 400, "{\"error\":\"invalid_request\"}");
+            return;
+        }
+        String code = "4/" + UUID.randomUUID();
+        authorizationCodes.put(code, new AuthorizationCode(clientId, parameters.get(Utils.NONCE)));
+        StringBuilder location = new StringBuilder(redirectURI).append(redirectURI.indexOf('?') < 0 ? '?' : '&')
+                .append("code=").append(encode(code));
+        if (parameters.get("state") != null) {
+            location.append("&state=").append(encode(parameters.get("state")));
+        }
+        exchange.getResponseHeaders().set("Location", location.toString());
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    /**
+     * Exchange an authorization code for an access token and a signed ID token.
+     */
+    private void token(HttpExchange exchange) throws IOException {
+
+        Map<String, String> parameters = parseQuery(new String(readBody(exchange), StandardCharsets.UTF_8));
+        String code = parameters.get("code");
+        AuthorizationCode authorizationCode = code == null ? null : authorizationCodes.remove(code);
+        if (!"authorization_code".equals(parameters.get("grant_type")) || authorizationCode == null) {
+            respond(exchange, 400, "{\"error\":\"invalid_grant\",\"error_description\":\"Bad Request\"}");
+            return;
+        }
+        String idToken;
+        try {
+            idToken = keys.issue(JWSAlgorithm.RS256, authorizationCode.clientId, authorizationCode.nonce,
+                    ID_TOKEN_LIFETIME);
+        } catch (JOSEException e) {
+            throw new IOException(e);
+        }
+        respond(exchange, 200, "{\"access_token\":\"" + issueAccessToken() + "\",\"expires_in\":3599," +
+                "\"scope\":\"" + GoogleOAuth2AuthenticationConstant.GOOGLE_SCOPE + "\",\"token_type\":\"Bearer\"," +
+                "\"id_token\":\"" + idToken + "\"}");
+    }
+
+    private void userInfo(HttpExchange exchange) throws IOException {
+
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ") ||
+                !accessTokens.containsKey(authorization.substring("Bearer ".length()))) {
+            respond(exchange, 401, "{\"error\":\"invalid_request\"}");
+            return;
+        }
+        respond(exchange, 200, USER_INFO_RESPONSE);
+    }
+
+    private void createContext(String endpoint, HttpHandler handler) {
+
+        server.createContext(endpoint, exchange -> {
+            try {
+                Fault fault = faults.get(endpoint);
+                if (fault != null) {
+                    if (fault.latency > 0) {
+                        Thread.sleep(fault.latency);
+                    }
+                    if (fault.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < fault.errorRate) {
+                        readBody(exchange);
+                        respond(exchange, 503, "{\"error\":\"temporarily_unavailable\"}");
+                        return;
+                    }
+                }
+                handler.handle(exchange);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.close();
+            }
+        });
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+            }
+        }
+        return body.toByteArray();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
+
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), "UTF-8"),
+                        URLDecoder.decode(pair.substring(separator + 1), "UTF-8"));
+            }
+        }
+        return parameters;
+    }
+
+    private static String encode(String value) throws UnsupportedEncodingException {
+
+        return URLEncoder.encode(value, "UTF-8");
+    }
+
+    /**
+     * The client and the nonce an authorization code was issued for.
+     */
+    private static class AuthorizationCode {
+
+        private final String clientId;
+        private final String nonce;
+
+        AuthorizationCode(String clientId, String nonce) {
+
+            this.clientId = clientId;
+            this.nonce = nonce;
+        }
+    }
+
+    /**
+     * Latency and error injection of an endpoint.
+     */
+    private static class Fault {
+
+        private final long latency;
+        private final double errorRate;
+
+        Fault(long latency, double errorRate) {
+
+            this.latency = latency;
+            this.errorRate = errorRate;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locally generated RS256 and ES256 keys standing in for the Google signing keys, and credentials signed by them.
+ * A second pair of keys with the same key IDs is used to produce credentials with a bad signature.
+ */
+public class GoogleTestKeys {
+
+    public static final String ISSUER = "https://accounts.google.com";
+    public static final String SUBJECT = "100000000000000000000";
+    public static final String EMAIL = "user@example.com";
+
+    private final Signer rs256;
+    private final Signer es256;
+    private final Signer foreignRS256;
+    private final Signer foreignES256;
+
+    public GoogleTestKeys() throws GeneralSecurityException {
+
+        rs256 = rsaSigner("test-rs256");
+        es256 = ecSigner("test-es256");
+        foreignRS256 = rsaSigner("test-rs256");
+        foreignES256 = ecSigner("test-es256");
+    }
+
+    /**
+     * Get the public keys of the given algorithm in the JWK set format served by Google.
+     *
+     * @param algorithm RS256 or ES256.
+     * @return The JWK set JSON.
+     */
+    public String getJWKSet(JWSAlgorithm algorithm) {
+
+        return new JWKSet(signer(algorithm, false).publicKey).toJSONObject(true).toJSONString();
+    }
+
+    /**
+     * Issue a credential with the claims Google puts in a One Tap credential or an ID token.
+     *
+     * @param algorithm Signing algorithm.
+     * @param audience  Client ID the credential is issued to.
+     * @param nonce     Nonce claim, or null to leave it out.
+     * @param lifetime  Time in milliseconds until the credential expires. Negative for an expired credential.
+     * @return The serialized credential.
+     * @throws JOSEException If signing fails.
+     */
+    public String issue(JWSAlgorithm algorithm, String audience, String nonce, long lifetime) throws JOSEException {
+
+        return sign(signer(algorithm, false), audience, nonce, lifetime);
+    }
+
+    /**
+     * Issue a credential signed by a key which is not published, but with the key ID of a published key.
+     *
+     * @param algorithm Signing algorithm.
+     * @param audience  Client ID the credential is issued to.
+     * @param nonce     Nonce claim, or null to leave it out.
+     * @return The serialized credential.
+     * @throws JOSEException If signing fails.
+     */
+    public String issueWithBadSignature(JWSAlgorithm algorithm, String audience, String nonce)
+            throws JOSEException {
+
+        return sign(signer(algorithm, true), audience, nonce, TimeUnit.MINUTES.toMillis(5));
+    }
+
+    private Signer signer(JWSAlgorithm algorithm, boolean foreign) {
+
+        if (JWSAlgorithm.ES256.equals(algorithm)) {
+            return foreign ? foreignES256 : es256;
+        }
+        return foreign ? foreignRS256 : rs256;
+    }
+
+    private static String sign(Signer signer, String audience, String nonce, long lifetime) throws JOSEException {
+
+        Date now = new Date();
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .audience(audience)
+                .subject(SUBJECT)
+                .issueTime(now)
+                .expirationTime(new Date(now.getTime() + lifetime))
+                .claim("email", EMAIL)
+                .claim("email_verified", true)
+                .claim("name", "Test User")
+                .claim("given_name", "Test")
+                .claim("family_name", "User");
+        if (nonce != null) {
+            claims.claim(Utils.NONCE, nonce);
+        }
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(signer.algorithm)
+                .keyID(signer.publicKey.getKeyID()).build(), claims.build());
+        signedJWT.sign(signer.signer);
+        return signedJWT.serialize();
+    }
+
+    private static Signer rsaSigner(String keyId) throws GeneralSecurityException {
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        return new Signer(JWSAlgorithm.RS256, new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .keyID(keyId).algorithm(JWSAlgorithm.RS256).build(), new RSASSASigner(keyPair.getPrivate()));
+    }
+
+    private static Signer ecSigner(String keyId) throws GeneralSecurityException {
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        try {
+            return new Signer(JWSAlgorithm.ES256, new ECKey.Builder(Curve.P_256, (ECPublicKey) keyPair.getPublic())
+                    .keyID(keyId).algorithm(JWSAlgorithm.ES256).build(),
+                    new ECDSASigner((ECPrivateKey) keyPair.getPrivate()));
+        } catch (JOSEException e) {
+            throw new GeneralSecurityException(e);
+        }
+    }
+
+    /**
+     * A published key along with the signer of its private key.
+     */
+    private static class Signer {
+
+        private final JWSAlgorithm algorithm;
+        private final JWK publicKey;
+        private final JWSSigner signer;
+
+        Signer(JWSAlgorithm algorithm, JWK publicKey, JWSSigner signer) {
+
+            this.algorithm = algorithm;
+            this.publicKey = publicKey;
+            this.signer = signer;
+        }
+    }
+}
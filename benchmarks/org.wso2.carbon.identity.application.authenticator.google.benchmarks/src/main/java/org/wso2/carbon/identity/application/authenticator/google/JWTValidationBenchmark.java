@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.application.authentication.framework.exception.AuthenticationFailedException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Utils#validateGoogleJWT} for valid, expired and badly signed One Tap credentials. The keys are
+ * served by a local stub server and are cached after the first validation, as in a running server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTValidationBenchmark {
+
+    private static final String NONCE = "benchmark-nonce";
+
+    @Param({"RS256", "ES256"})
+    private String algorithm;
+
+    private GoogleStubServer server;
+    private String validCredential;
+    private String expiredCredential;
+    private String badSignatureCredential;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        server = new GoogleStubServer(new GoogleTestKeys());
+        server.start();
+        Utils.configureJWTValidation(server.getAuthenticatorParameters());
+
+        JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(algorithm);
+        GoogleTestKeys keys = server.getKeys();
+        validCredential = keys.issue(jwsAlgorithm, BenchmarkSupport.CLIENT_ID, NONCE, TimeUnit.HOURS.toMillis(1));
+        expiredCredential = keys.issue(jwsAlgorithm, BenchmarkSupport.CLIENT_ID, NONCE,
+                -TimeUnit.HOURS.toMillis(1));
+        badSignatureCredential = keys.issueWithBadSignature(jwsAlgorithm, BenchmarkSupport.CLIENT_ID, NONCE);
+
+        if (!Utils.validateGoogleJWT(validCredential, BenchmarkSupport.CLIENT_ID, NONCE, true)) {
+            throw new IllegalStateException("The valid " + algorithm + " credential was rejected.");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        server.stop();
+    }
+
+    @Benchmark
+    public boolean valid() throws AuthenticationFailedException {
+
+        return Utils.validateGoogleJWT(validCredential, BenchmarkSupport.CLIENT_ID, NONCE, true);
+    }
+
+    @Benchmark
+    public boolean expired() {
+
+        return validateRejected(expiredCredential);
+    }
+
+    @Benchmark
+    public boolean badSignature() {
+
+        return validateRejected(badSignatureCredential);
+    }
+
+    private static boolean validateRejected(String credential) {
+
+        try {
+            return Utils.validateGoogleJWT(credential, BenchmarkSupport.CLIENT_ID, NONCE, true);
+        } catch (AuthenticationFailedException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import org.wso2.carbon.identity.application.authenticator.google.metrics.GoogleAuthenticatorMetrics;
+import org.wso2.carbon.identity.application.authenticator.google.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latencies of the phases of the load tested flows and reports their percentiles.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Phase> phases = new ConcurrentSkipListMap<>();
+
+    /**
+     * Record a completed phase.
+     *
+     * @param phase   Name of the phase, prefixed by the flow.
+     * @param nanos   Time taken by the phase in nanoseconds.
+     * @param success Whether the phase completed without an error.
+     */
+    public void record(String phase, long nanos, boolean success) {
+
+        Phase recorded = phases.computeIfAbsent(phase, name -> new Phase());
+        recorded.latencies.add(nanos);
+        if (!success) {
+            recorded.errors.increment();
+        }
+    }
+
+    /**
+     * Discard the recorded latencies.
+     */
+    public void clear() {
+
+        phases.clear();
+    }
+
+    /**
+     * Format the count, error count and p50, p99 and maximum latencies of each phase.
+     *
+     * @param elapsedNanos Wall clock time of the run in nanoseconds, used for the throughput.
+     * @return The report.
+     */
+    public String report(long elapsedNanos) {
+
+        double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        StringBuilder report = new StringBuilder(String.format("%-22s %8s %7s %10s %10s %10s %10s%n", "phase",
+                "count", "errors", "p50 (ms)", "p99 (ms)", "max (ms)", "ops/s"));
+        for (Map.Entry<String, Phase> entry : phases.entrySet()) {
+            List<Long> recorded = new ArrayList<>(entry.getValue().latencies);
+            long[] latencies = new long[recorded.size()];
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = recorded.get(i);
+            }
+            Arrays.sort(latencies);
+            report.append(String.format("%-22s %8d %7d %10.2f %10.2f %10.2f %10.1f%n", entry.getKey(),
+                    latencies.length, entry.getValue().errors.sum(), toMillis(percentile(latencies, 0.50)),
+                    toMillis(percentile(latencies, 0.99)), toMillis(percentile(latencies, 1.0)),
+                    latencies.length / elapsedSeconds));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Format the count, error count and p50, p99 and maximum latencies of each phase timed by the authenticator
+     * itself, such as the token exchange or the user info fetch running alongside the ID token processing.
+     *
+     * @param metrics      Metrics recorded by the authenticator during the run.
+     * @param elapsedNanos Wall clock time of the run in nanoseconds, used for the throughput.
+     * @return The report.
+     */
+    public static String report(GoogleAuthenticatorMetrics metrics, long elapsedNanos) {
+
+        double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        StringBuilder report = new StringBuilder(String.format("%-22s %8s %7s %10s %10s %10s %10s%n",
+                "authenticator phase", "count", "errors", "p50 (ms)", "p99 (ms)", "max (ms)", "ops/s"));
+        for (GoogleAuthenticatorMetrics.Phase phase : GoogleAuthenticatorMetrics.Phase.values()) {
+            LatencyHistogram histogram = metrics.getHistogram(phase);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            // The histogram buckets are powers of two microseconds, so the percentiles are upper bounds.
+            report.append(String.format("%-22s %8d %7d %10.2f %10.2f %10.2f %10.1f%n", phase.getMetricName(),
+                    histogram.getCount(), histogram.getFailureCount(), histogram.getPercentileMillis(0.50),
+                    histogram.getPercentileMillis(0.99), histogram.getMaxMillis(),
+                    histogram.getCount() / elapsedSeconds));
+        }
+        return report.toString();
+    }
+
+    private static long percentile(long[] sortedLatencies, double percentile) {
+
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+    }
+
+    private static double toMillis(long nanos) {
+
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Latencies and error count of a phase.
+     */
+    private static class Phase {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+    }
+}
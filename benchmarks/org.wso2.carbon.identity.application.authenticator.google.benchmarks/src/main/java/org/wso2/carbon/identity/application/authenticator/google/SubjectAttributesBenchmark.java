@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import org.apache.oltu.oauth2.client.response.OAuthClientResponse;
+import org.apache.oltu.oauth2.client.response.OAuthClientResponseFactory;
+import org.apache.oltu.oauth2.client.response.OAuthJSONAccessTokenResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleHttpClient;
+import org.wso2.carbon.identity.application.authenticator.oidc.OIDCAuthenticatorConstants;
+import org.wso2.carbon.identity.application.common.model.ClaimMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link GoogleOAuth2Authenticator#getSubjectAttributes} against the user info endpoint of a local stub
+ * server, with and without resolving the claims from the ID token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubjectAttributesBenchmark {
+
+    @Param({"false", "true"})
+    private String resolveClaimsFromIdToken;
+
+    private GoogleStubServer server;
+    private GoogleOAuth2Authenticator authenticator;
+    private Map<String, String> authenticatorProperties;
+    private OAuthClientResponse tokenResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        server = new GoogleStubServer(new GoogleTestKeys());
+        server.start();
+        authenticator = BenchmarkSupport.createAuthenticator(server.getAuthenticatorParameters());
+
+        authenticatorProperties = new HashMap<>();
+        authenticatorProperties.put(OIDCAuthenticatorConstants.CLIENT_ID, BenchmarkSupport.CLIENT_ID);
+        authenticatorProperties.put(GoogleOAuth2AuthenticationConstant.RESOLVE_CLAIMS_FROM_ID_TOKEN,
+                resolveClaimsFromIdToken);
+
+        String idToken = server.getKeys().issue(JWSAlgorithm.RS256, BenchmarkSupport.CLIENT_ID, null,
+                TimeUnit.HOURS.toMillis(1));
+        String tokenResponseBody = "{\"access_token\":\"" + server.issueAccessToken() + "\"," +
+                "\"token_type\":\"Bearer\",\"expires_in\":3599,\"scope\":\"" +
+                GoogleOAuth2AuthenticationConstant.GOOGLE_SCOPE + "\",\"id_token\":\"" + idToken + "\"}";
+        tokenResponse = OAuthClientResponseFactory.createCustomResponse(tokenResponseBody, "application/json", 200,
+                OAuthJSONAccessTokenResponse.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        GoogleHttpClient.getInstance().shutdown();
+        server.stop();
+    }
+
+    @Benchmark
+    public Map<ClaimMapping, String> getSubjectAttributes() {
+
+        return authenticator.getSubjectAttributes(tokenResponse, authenticatorProperties);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authentication.framework.config.model.AuthenticatorConfig;
+import org.wso2.carbon.identity.application.common.model.ClaimMapping;
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable snapshot of the file based configuration of the Google authenticator. All the parameters are resolved
+ * once when the snapshot is built, so that the authentication path reads them without map lookups or parsing.
+ * A new snapshot is built and published when the configuration is reloaded, or when the framework hands out a
+ * different configuration bean or parameter map.
+ */
+public final class GoogleAuthenticatorConfig {
+
+    private static final Log LOG = LogFactory.getLog(GoogleAuthenticatorConfig.class);
+
+    // Google returns a small and stable set of claims. The limit guards against unexpected claim keys.
+    private static final int MAX_CLAIM_MAPPINGS = 256;
+
+    private final AuthenticatorConfig authenticatorConfig;
+    // Parameter map of the configuration bean the snapshot was built from, kept to detect a replaced map by identity.
+    private final Map<String, String> sourceParameters;
+    private final Map<String, String> parameters;
+    private final String tokenEndpoint;
+    private final String authorizationEndpoint;
+    private final String userInfoEndpoint;
+    private final boolean csrfValidationForOneTapEnabled;
+    private final String claimDialectURI;
+    private final String claimURIPrefix;
+    private final ConcurrentMap<String, ClaimMapping> claimMappings = new ConcurrentHashMap<>();
+
+    /**
+     * Resolve the authenticator configuration.
+     *
+     * @param authenticatorConfig    File based configuration of the authenticator.
+     * @param defaultClaimDialectURI Claim dialect URI used when the configuration does not define one.
+     */
+    public GoogleAuthenticatorConfig(AuthenticatorConfig authenticatorConfig, String defaultClaimDialectURI) {
+
+        this.authenticatorConfig = authenticatorConfig;
+        this.sourceParameters = authenticatorConfig == null ? null : authenticatorConfig.getParameterMap();
+        this.parameters = sourceParameters == null ? Collections.<String, String>emptyMap() :
+                Collections.unmodifiableMap(new HashMap<>(sourceParameters));
+
+        String configuredTokenEndpoint = parameters.get(GoogleOAuth2AuthenticationConstant.GOOGLE_TOKEN_ENDPOINT);
+        this.tokenEndpoint = StringUtils.isBlank(configuredTokenEndpoint) ?
+                IdentityApplicationConstants.GOOGLE_TOKEN_URL : configuredTokenEndpoint;
+        String configuredAuthzEndpoint = parameters.get(GoogleOAuth2AuthenticationConstant.GOOGLE_AUTHZ_ENDPOINT);
+        this.authorizationEndpoint = StringUtils.isBlank(configuredAuthzEndpoint) ?
+                IdentityApplicationConstants.GOOGLE_OAUTH_URL : configuredAuthzEndpoint;
+        String configuredUserInfoEndpoint = parameters.get(
+                GoogleOAuth2AuthenticationConstant.GOOGLE_USERINFO_ENDPOINT);
+        this.userInfoEndpoint = configuredUserInfoEndpoint == null ?
+                IdentityApplicationConstants.GOOGLE_USERINFO_URL : configuredUserInfoEndpoint;
+
+        String enableCSRFValidationForGOT = parameters.get(
+                GoogleOAuth2AuthenticationConstant.ENABLE_CSRF_VALIDATION_FOR_GOT);
+        this.csrfValidationForOneTapEnabled = StringUtils.isBlank(enableCSRFValidationForGOT) ||
+                Boolean.parseBoolean(enableCSRFValidationForGOT);
+
+        String resolvedClaimDialectURI = defaultClaimDialectURI;
+        if (parameters.containsKey(GoogleOAuth2AuthenticationConstant.CLAIM_DIALECT_URI_PARAMETER)) {
+            resolvedClaimDialectURI = parameters.get(GoogleOAuth2AuthenticationConstant.CLAIM_DIALECT_URI_PARAMETER);
+        } else if (LOG.isDebugEnabled()) {
+            LOG.debug("Found no claim dialect URI parameter for connector " +
+                    GoogleOAuth2AuthenticationConstant.GOOGLE_CONNECTOR_NAME);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Authenticator " + GoogleOAuth2AuthenticationConstant.GOOGLE_CONNECTOR_NAME +
+                    " is using the claim dialect uri " + resolvedClaimDialectURI);
+        }
+        this.claimDialectURI = resolvedClaimDialectURI;
+        this.claimURIPrefix = defaultClaimDialectURI != null && !defaultClaimDialectURI.equals(claimDialectURI) ?
+                claimDialectURI + "/" : "";
+    }
+
+    /**
+     * Check whether this snapshot was built from the given configuration. The configuration bean and its parameter
+     * map are compared by identity only, as the check runs on every login. Changes made in place to the parameter
+     * map are applied by {@link GoogleOAuth2Authenticator#reloadConfiguration()}.
+     *
+     * @param currentAuthenticatorConfig The current file based configuration of the authenticator.
+     * @return Whether the configuration bean and its parameter map are the ones this snapshot was built from.
+     */
+    public boolean isResolvedFrom(AuthenticatorConfig currentAuthenticatorConfig) {
+
+        if (currentAuthenticatorConfig != authenticatorConfig) {
+            return false;
+        }
+        return currentAuthenticatorConfig == null || currentAuthenticatorConfig.getParameterMap() == sourceParameters;
+    }
+
+    /**
+     * Get the claim mapping of a Google claim. Claim mappings are built once per claim and shared across logins.
+     *
+     * @param claimKey Claim name returned by Google.
+     * @return The claim mapping with the claim URI prefixed by the configured claim dialect.
+     */
+    public ClaimMapping getClaimMapping(String claimKey) {
+
+        ClaimMapping claimMapping = claimMappings.get(claimKey);
+        if (claimMapping != null) {
+            return claimMapping;
+        }
+        String claimURI = claimURIPrefix + claimKey;
+        claimMapping = ClaimMapping.build(claimURI, claimURI, null, false);
+        if (claimMappings.size() < MAX_CLAIM_MAPPINGS) {
+            ClaimMapping existing = claimMappings.putIfAbsent(claimKey, claimMapping);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return claimMapping;
+    }
+
+    /**
+     * Get the authenticator parameters. The map is unmodifiable and the same instance is returned for the lifetime
+     * of the snapshot.
+     *
+     * @return Authenticator parameter map.
+     */
+    public Map<String, String> getParameters() {
+
+        return parameters;
+    }
+
+    public String getTokenEndpoint() {
+
+        return tokenEndpoint;
+    }
+
+    public String getAuthorizationEndpoint() {
+
+        return authorizationEndpoint;
+    }
+
+    public String getUserInfoEndpoint() {
+
+        return userInfoEndpoint;
+    }
+
+    public boolean isCSRFValidationForOneTapEnabled() {
+
+        return csrfValidationForOneTapEnabled;
+    }
+
+    public String getClaimDialectURI() {
+
+        return claimDialectURI;
+    }
+
+    public String getClaimURIPrefix() {
+
+        return claimURIPrefix;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.oltu.oauth2.common.utils.JSONUtils;
+import org.wso2.carbon.identity.application.authentication.framework.exception.AuthenticationFailedException;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleHttpClient;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.CachedJWKSource;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.GoogleJWKSetCache;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.GoogleJWTValidator;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.JWKSourceConfig;
+import org.wso2.carbon.identity.application.authenticator.google.metrics.GoogleAuthenticatorMetrics;
+import org.wso2.carbon.identity.application.common.model.ClaimMapping;
+import org.wso2.carbon.identity.core.util.IdentityCoreConstants;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms up the Google authentication hot path after the bundle is activated, so that the one-time costs do not land
+ * on the first users. The Google keys are fetched, pooled connections to the Google token and user info endpoints are
+ * opened and kept alive, and the credential validation
+ * and claim mapping code is run on synthetic credentials signed by a throwaway key which is never trusted for
+ * real credentials. The synthetic validations are not recorded in the authenticator metrics.
+ * <p>
+ * The warm-up is disabled by default and runs on a daemon thread once enabled with the EnableWarmUp parameter. The
+ * thread is interrupted if the bundle is deactivated before the warm-up completes.
+ */
+public class GoogleAuthenticatorWarmUp implements Runnable {
+
+    private static final Log LOG = LogFactory.getLog(GoogleAuthenticatorWarmUp.class);
+
+    private static final String WARM_UP_AUDIENCE = "google-authenticator-warm-up";
+    private static final String WARM_UP_NONCE = "warm-up-nonce";
+    private static final String WARM_UP_USER_INFO = "{\"sub\":\"100000000000000000000\"," +
+            "\"email\":\"warm.up@example.com\",\"email_verified\":true,\"name\":\"Warm Up\"," +
+            "\"given_name\":\"Warm\",\"family_name\":\"Up\",\"picture\":\"https://example.com/warm-up.png\"," +
+            "\"locale\":\"en\",\"roles\":[\"a\",\"b\"]}";
+
+    private static volatile Thread warmUpThread;
+
+    private final GoogleOAuth2Authenticator authenticator;
+    private final int iterations;
+
+    public GoogleAuthenticatorWarmUp(GoogleOAuth2Authenticator authenticator, int iterations) {
+
+        this.authenticator = authenticator;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Start the warm-up in the background if it is enabled in the given authenticator parameters.
+     *
+     * @param authenticator The registered authenticator.
+     * @param parameters    Authenticator parameter map.
+     */
+    public static void startIfEnabled(GoogleOAuth2Authenticator authenticator, Map<String, String> parameters) {
+
+        if (parameters == null || !Boolean.parseBoolean(parameters.get(GoogleOAuth2AuthenticationConstant
+                .ENABLE_WARM_UP))) {
+            return;
+        }
+        int iterations = (int) Utils.getLongParameter(parameters, GoogleOAuth2AuthenticationConstant
+                .WARM_UP_ITERATIONS, GoogleOAuth2AuthenticationConstant.DEFAULT_WARM_UP_ITERATIONS);
+        Thread thread = new Thread(new GoogleAuthenticatorWarmUp(authenticator, iterations),
+                "google-authenticator-warm-up");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        synchronized (GoogleAuthenticatorWarmUp.class) {
+            stop();
+            warmUpThread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Interrupt the warm-up if it is still running.
+     */
+    public static synchronized void stop() {
+
+        Thread thread = warmUpThread;
+        warmUpThread = null;
+        if (thread != null && thread.isAlive()) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+
+        long startTime = System.nanoTime();
+        long keysTime = time(this::fetchKeys);
+        long connectionsTime = time(this::openConnections);
+        long validationTime = time(this::validateSyntheticCredentials);
+        long claimMappingTime = time(this::mapSyntheticClaims);
+        if (Thread.currentThread().isInterrupted()) {
+            LOG.info("Google authenticator warm-up was stopped before it completed.");
+            return;
+        }
+        LOG.info("Google authenticator warm-up completed in " + toMillis(System.nanoTime() - startTime) +
+                " ms. Keys: " + toMillis(keysTime) + " ms, connections: " + toMillis(connectionsTime) +
+                " ms, credential validation: " + toMillis(validationTime) + " ms, claim mapping: " +
+                toMillis(claimMappingTime) + " ms.");
+    }
+
+    /**
+     * Fetch the Google keys, which also sets up the TLS connections to the Google key endpoints.
+     */
+    private void fetchKeys() {
+
+        for (JWSAlgorithm algorithm : new JWSAlgorithm[]{JWSAlgorithm.RS256, JWSAlgorithm.ES256}) {
+            CachedJWKSource jwkSource = GoogleJWKSetCache.getInstance().getJWKSource(algorithm);
+            if (jwkSource == null) {
+                continue;
+            }
+            try {
+                jwkSource.getJWKSet();
+            } catch (JOSEException e) {
+                LOG.warn("Error while fetching the " + algorithm + " keys of Google during the warm-up.", e);
+            }
+        }
+    }
+
+    /**
+     * Open pooled connections to the Google endpoints used in the authorization code flow. The requests carry no
+     * credentials, hence Google rejects them, but the DNS lookup and the TLS handshake are done and the connections
+     * stay in the pool for the first logins.
+     */
+    private void openConnections() {
+
+        GoogleHttpClient httpClient = GoogleHttpClient.getInstance();
+        httpClient.configure(authenticator.getConfig().getParameters());
+        openConnection(httpClient, authenticator.getTokenEndpoint(null));
+        openConnection(httpClient, authenticator.getUserInfoEndpoint(null, null));
+    }
+
+    private static void openConnection(GoogleHttpClient httpClient, String endpoint) {
+
+        if (StringUtils.isBlank(endpoint)) {
+            return;
+        }
+        try {
+            int statusCode = httpClient.openConnection(endpoint);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Opened a connection to the Google endpoint " + endpoint + " during the warm-up. " +
+                        "Response status : " + statusCode);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Error while opening a connection to the Google endpoint " + endpoint + " during the warm-up.",
+                    e);
+        }
+    }
+
+    /**
+     * Validate RS256 and ES256 credentials signed by throwaway keys, with validators which only trust those keys.
+     */
+    private void validateSyntheticCredentials() {
+
+        try {
+            KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+            rsaGenerator.initialize(2048);
+            KeyPair rsaKeyPair = rsaGenerator.generateKeyPair();
+            RSAKey rsaKey = new RSAKey.Builder((RSAPublicKey) rsaKeyPair.getPublic())
+                    .keyID("warm-up-rs256").algorithm(JWSAlgorithm.RS256).build();
+            validateSyntheticCredentials(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKeyPair.getPrivate()));
+
+            KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+            ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair ecKeyPair = ecGenerator.generateKeyPair();
+            ECKey ecKey = new ECKey.Builder(Curve.P_256, (ECPublicKey) ecKeyPair.getPublic())
+                    .keyID("warm-up-es256").algorithm(JWSAlgorithm.ES256).build();
+            validateSyntheticCredentials(JWSAlgorithm.ES256, ecKey,
+                    new ECDSASigner((ECPrivateKey) ecKeyPair.getPrivate()));
+        } catch (GeneralSecurityException | MalformedURLException | JOSEException | ParseException |
+                AuthenticationFailedException e) {
+            LOG.warn("Error while warming up the Google One Tap credential validation.", e);
+        }
+    }
+
+    private void validateSyntheticCredentials(JWSAlgorithm algorithm, JWK publicKey, JWSSigner signer)
+            throws MalformedURLException, JOSEException, ParseException, AuthenticationFailedException {
+
+        final String jwkSet = new JWKSet(publicKey).toJSONObject(true).toJSONString();
+        CachedJWKSource jwkSource = new CachedJWKSource(new JWKSourceConfig(new URL("https://localhost/warm-up"),
+                TimeUnit.HOURS.toMillis(1), 0, 0, 1, TimeUnit.MINUTES.toMillis(1), null, 0),
+                url -> new Resource(jwkSet, "application/json"), Runnable::run, GoogleAuthenticatorMetrics.noOp());
+        GoogleJWTValidator validator = new GoogleJWTValidator(algorithm, WARM_UP_AUDIENCE, jwkSource);
+
+        Date now = new Date();
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(algorithm).keyID(publicKey.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .issuer("https://accounts.google.com")
+                        .audience(WARM_UP_AUDIENCE)
+                        .subject("100000000000000000000")
+                        .issueTime(now)
+                        .expirationTime(new Date(now.getTime() + TimeUnit.MINUTES.toMillis(5)))
+                        .claim(Utils.NONCE, WARM_UP_NONCE)
+                        .claim("email", "warm.up@example.com")
+                        .build());
+        signedJWT.sign(signer);
+        String credential = signedJWT.serialize();
+        for (int i = 0; i < iterations && !Thread.currentThread().isInterrupted(); i++) {
+            validator.validate(SignedJWT.parse(credential), WARM_UP_NONCE, true);
+        }
+    }
+
+    /**
+     * Parse a synthetic user info response and map it to claims.
+     */
+    private void mapSyntheticClaims() {
+
+        try {
+            for (int i = 0; i < iterations && !Thread.currentThread().isInterrupted(); i++) {
+                Map<ClaimMapping, String> claims = new HashMap<>();
+                for (Map.Entry<String, Object> entry : JSONUtils.parseJSON(WARM_UP_USER_INFO).entrySet()) {
+                    authenticator.buildClaimMappings(claims, entry,
+                            IdentityCoreConstants.MULTI_ATTRIBUTE_SEPARATOR_DEFAULT);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Error while warming up the Google claim mapping.", e);
+        }
+    }
+
+    private static long time(Runnable phase) {
+
+        if (Thread.currentThread().isInterrupted()) {
+            return 0;
+        }
+        long startTime = System.nanoTime();
+        phase.run();
+        return System.nanoTime() - startTime;
+    }
+
+    private static long toMillis(long nanos) {
+
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
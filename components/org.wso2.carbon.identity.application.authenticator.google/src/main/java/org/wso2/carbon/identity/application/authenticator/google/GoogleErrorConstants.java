@@ -37,7 +37,8 @@ public class GoogleErrorConstants {
         INVALID_JWK_SOURCE_URL("60002", "Invalid JWK source URL : %s ."),
         JWT_PARSE_ERROR("60003", "JWT parse error."),
         JWT_PROCESS_ERROR("60004", "JWT process error."),
-        JWT_NONCE_ERROR("60005", "Invalid nonce at JWT");
+        JWT_NONCE_ERROR("60005", "Invalid nonce at JWT"),
+        GOOGLE_ENDPOINT_UNAVAILABLE("60007", "Call to the Google %s endpoint was rejected : %s .");
 
         private final String code;
         private final String message;
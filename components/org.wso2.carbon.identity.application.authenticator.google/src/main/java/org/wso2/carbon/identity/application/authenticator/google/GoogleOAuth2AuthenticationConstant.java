@@ -32,6 +32,105 @@ public class GoogleOAuth2AuthenticationConstant {
     public static final String ADDITIONAL_QUERY_PARAMS = "AdditionalQueryParameters";
     public static final String CLAIM_DIALECT_URI_PARAMETER = "ClaimDialectUri";
 
+    // JWKS endpoints used to verify Google One Tap credentials.
+    public static final String GOOGLE_JWKS_RS256_ENDPOINT = "GoogleJwksRS256Endpoint";
+    public static final String GOOGLE_JWKS_ES256_ENDPOINT = "GoogleJwksES256Endpoint";
+    public static final String GOOGLE_JWKS_RS256_URL = "https://www.googleapis.com/oauth2/v3/certs";
+    public static final String GOOGLE_JWKS_ES256_URL = "https://www.gstatic.com/iap/verify/public_key-jwk";
+
+    // JWKS cache time to live and the time before expiry to refresh the keys in the background, in seconds.
+    public static final String JWKS_CACHE_TTL = "JwksCacheTTL";
+    public static final String JWKS_REFRESH_AHEAD_TIME = "JwksRefreshAheadTime";
+    public static final long DEFAULT_JWKS_CACHE_TTL = 3600;
+    public static final long DEFAULT_JWKS_REFRESH_AHEAD_TIME = 300;
+
+    // Minimum interval in seconds between JWKS fetches, and the size and TTL in seconds of the unknown key ID cache.
+    public static final String JWKS_MIN_REFRESH_INTERVAL = "JwksMinRefreshInterval";
+    public static final String JWKS_UNKNOWN_KID_CACHE_SIZE = "JwksUnknownKidCacheSize";
+    public static final String JWKS_UNKNOWN_KID_CACHE_TTL = "JwksUnknownKidCacheTTL";
+    public static final long DEFAULT_JWKS_MIN_REFRESH_INTERVAL = 30;
+    public static final long DEFAULT_JWKS_UNKNOWN_KID_CACHE_SIZE = 1000;
+    public static final long DEFAULT_JWKS_UNKNOWN_KID_CACHE_TTL = 300;
+
+    // Directory to persist the fetched JWKS to, and the maximum age in seconds of a persisted JWKS used on startup.
+    public static final String JWKS_SNAPSHOT_DIRECTORY = "JwksSnapshotDirectory";
+    public static final String DEFAULT_JWKS_SNAPSHOT_DIRECTORY = "repository/data/google-authenticator";
+    public static final String JWKS_MAX_STALE_AGE = "JwksMaxStaleAge";
+    public static final long DEFAULT_JWKS_MAX_STALE_AGE = 86400;
+
+    // Connection pool of the HTTP client used for the Google token and user info endpoints. Timeouts in milliseconds.
+    public static final String HTTP_MAX_CONNECTIONS = "HttpMaxConnections";
+    public static final String HTTP_MAX_CONNECTIONS_PER_ROUTE = "HttpMaxConnectionsPerRoute";
+    public static final String HTTP_CONNECT_TIMEOUT = "HttpConnectTimeout";
+    public static final String HTTP_READ_TIMEOUT = "HttpReadTimeout";
+    public static final String HTTP_CONNECTION_REQUEST_TIMEOUT = "HttpConnectionRequestTimeout";
+    public static final String HTTP_KEEP_ALIVE_TIME = "HttpKeepAliveTime";
+    public static final long DEFAULT_HTTP_MAX_CONNECTIONS = 100;
+    public static final long DEFAULT_HTTP_MAX_CONNECTIONS_PER_ROUTE = 50;
+    public static final long DEFAULT_HTTP_CONNECT_TIMEOUT = 5000;
+    public static final long DEFAULT_HTTP_READ_TIMEOUT = 10000;
+    public static final long DEFAULT_HTTP_CONNECTION_REQUEST_TIMEOUT = 5000;
+    public static final long DEFAULT_HTTP_KEEP_ALIVE_TIME = 60000;
+
+    // Opt-in concurrency limit per Google endpoint and the maximum wait in milliseconds for a free slot. The limit
+    // defaults to the connections per route and the wait to the connection request timeout, so that an enabled limit
+    // only rejects the calls which would otherwise have timed out waiting for a pooled connection.
+    public static final String ENABLE_BULKHEAD = "EnableBulkhead";
+    public static final String HTTP_MAX_CONCURRENT_CALLS = "HttpMaxConcurrentCalls";
+    public static final String HTTP_MAX_CONCURRENT_CALLS_WAIT = "HttpMaxConcurrentCallsWait";
+
+    // Opt-in circuit breaker per Google endpoint. Rates in percent, the slow call threshold in milliseconds, the window
+    // and the open duration in seconds.
+    public static final String ENABLE_CIRCUIT_BREAKER = "EnableCircuitBreaker";
+    public static final String CIRCUIT_BREAKER_FAILURE_RATE = "CircuitBreakerFailureRate";
+    public static final String CIRCUIT_BREAKER_SLOW_CALL_RATE = "CircuitBreakerSlowCallRate";
+    public static final String CIRCUIT_BREAKER_SLOW_CALL_THRESHOLD = "CircuitBreakerSlowCallThreshold";
+    public static final String CIRCUIT_BREAKER_MINIMUM_CALLS = "CircuitBreakerMinimumCalls";
+    public static final String CIRCUIT_BREAKER_WINDOW = "CircuitBreakerWindow";
+    public static final String CIRCUIT_BREAKER_OPEN_DURATION = "CircuitBreakerOpenDuration";
+    public static final String CIRCUIT_BREAKER_HALF_OPEN_CALLS = "CircuitBreakerHalfOpenCalls";
+    public static final long DEFAULT_CIRCUIT_BREAKER_FAILURE_RATE = 50;
+    public static final long DEFAULT_CIRCUIT_BREAKER_SLOW_CALL_RATE = 80;
+    public static final long DEFAULT_CIRCUIT_BREAKER_SLOW_CALL_THRESHOLD = 5000;
+    public static final long DEFAULT_CIRCUIT_BREAKER_MINIMUM_CALLS = 20;
+    public static final long DEFAULT_CIRCUIT_BREAKER_WINDOW = 10;
+    public static final long DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION = 30;
+    public static final long DEFAULT_CIRCUIT_BREAKER_HALF_OPEN_CALLS = 5;
+
+    // Retries of the idempotent Google fetches (user info and JWKS). The backoff times are in milliseconds. Retries
+    // are limited to the given percentage of the fetches, with a burst allowance of the given number of retries.
+    public static final String HTTP_MAX_RETRIES = "HttpMaxRetries";
+    public static final String HTTP_RETRY_BACKOFF = "HttpRetryBackoff";
+    public static final String HTTP_RETRY_MAX_BACKOFF = "HttpRetryMaxBackoff";
+    public static final String HTTP_RETRY_BUDGET_RATIO = "HttpRetryBudgetRatio";
+    public static final String HTTP_RETRY_BUDGET_BURST = "HttpRetryBudgetBurst";
+    public static final long DEFAULT_HTTP_MAX_RETRIES = 2;
+    public static final long DEFAULT_HTTP_RETRY_BACKOFF = 100;
+    public static final long DEFAULT_HTTP_RETRY_MAX_BACKOFF = 1000;
+    public static final long DEFAULT_HTTP_RETRY_BUDGET_RATIO = 10;
+    public static final long DEFAULT_HTTP_RETRY_BUDGET_BURST = 10;
+
+    // Fetch the user info in the code flow while the ID token is processed. The threads and the queue size of the
+    // executor running the fetches, and whether to run them on virtual threads where the JDK supports them.
+    public static final String ENABLE_USER_INFO_PREFETCH = "EnableUserInfoPrefetch";
+    public static final String OUTBOUND_EXECUTOR_THREADS = "OutboundExecutorThreads";
+    public static final String OUTBOUND_EXECUTOR_QUEUE_SIZE = "OutboundExecutorQueueSize";
+    public static final String OUTBOUND_EXECUTOR_VIRTUAL_THREADS = "OutboundExecutorVirtualThreads";
+    public static final long DEFAULT_OUTBOUND_EXECUTOR_THREADS = 20;
+    public static final long DEFAULT_OUTBOUND_EXECUTOR_QUEUE_SIZE = 200;
+
+    // Warm-up of the authentication path after the bundle is activated.
+    public static final String ENABLE_WARM_UP = "EnableWarmUp";
+    public static final String WARM_UP_ITERATIONS = "WarmUpIterations";
+    public static final long DEFAULT_WARM_UP_ITERATIONS = 200;
+
+    // Allowed clock skew in seconds when validating the expiry of Google One Tap credentials.
+    public static final String JWT_CLOCK_SKEW = "JwtClockSkew";
+    public static final long DEFAULT_JWT_CLOCK_SKEW = 60;
+
+    // Parallelism of the batch validation of Google One Tap credentials. Defaults to the number of processors.
+    public static final String JWT_BATCH_VALIDATION_PARALLELISM = "JwtBatchValidationParallelism";
+
     // Google One Tap property name.
     public static final String GOOGLE_ONE_TAP_ENABLED = "IsGoogleOneTapEnabled";
 
@@ -41,12 +140,38 @@ public class GoogleOAuth2AuthenticationConstant {
     // Google One Tap checkbox description in carbon console.
     public static final String GOOGLE_ONE_TAP_DESCRIPTION = "Enable Google One Tap as a sign in option.";
 
+    // Resolve the user claims from the ID token and call the user info endpoint only if a required claim is missing.
+    public static final String RESOLVE_CLAIMS_FROM_ID_TOKEN = "ResolveClaimsFromIdToken";
+    public static final String RESOLVE_CLAIMS_FROM_ID_TOKEN_DISPLAY_NAME = "Resolve claims from ID token";
+    public static final String RESOLVE_CLAIMS_FROM_ID_TOKEN_DESCRIPTION = "Use the claims in the ID token and " +
+            "call the user info endpoint only if a required claim is missing in the ID token.";
+    public static final String ID_TOKEN_REQUIRED_CLAIMS = "IdTokenRequiredClaims";
+    public static final String ID_TOKEN_REQUIRED_CLAIMS_DISPLAY_NAME = "Required ID token claims";
+    public static final String ID_TOKEN_REQUIRED_CLAIMS_DESCRIPTION = "Comma separated Google claims which should " +
+            "be in the ID token to skip the user info endpoint.";
+    public static final String DEFAULT_ID_TOKEN_REQUIRED_CLAIMS = "sub,email";
+
+    // Cache of the user info responses. The size, the TTL in seconds and the per IdP maximum staleness in seconds.
+    public static final String ENABLE_USER_INFO_CACHE = "EnableUserInfoCache";
+    public static final String USER_INFO_CACHE_SIZE = "UserInfoCacheSize";
+    public static final String USER_INFO_CACHE_TTL = "UserInfoCacheTTL";
+    public static final long DEFAULT_USER_INFO_CACHE_SIZE = 10000;
+    public static final long DEFAULT_USER_INFO_CACHE_TTL = 300;
+    public static final String USER_INFO_MAX_STALENESS = "UserInfoMaxStaleness";
+    public static final String USER_INFO_MAX_STALENESS_DISPLAY_NAME = "User info max staleness";
+    public static final String USER_INFO_MAX_STALENESS_DESCRIPTION = "Maximum age in seconds of a cached user info " +
+            "response used for this identity provider. Leave empty to accept any response within the cache TTL.";
+
     /**
      * Constants related to log management.
      */
     public static class LogConstants {
 
         public static final String OUTBOUND_AUTH_GOOGLE_SERVICE = "outbound-auth-google";
+        public static final String PHASE_DURATIONS = "phaseDurationsMillis";
+        public static final String PHASE_START_OFFSETS = "phaseStartOffsetsMillis";
+        public static final String PHASE_FLAGS = "phaseFlags";
+        public static final String ELAPSED_TIME = "elapsedTimeMillis";
     }
 }
 
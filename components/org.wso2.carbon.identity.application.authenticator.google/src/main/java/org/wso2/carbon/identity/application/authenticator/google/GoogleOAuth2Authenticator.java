@@ -17,18 +17,26 @@
  */
 package org.wso2.carbon.identity.application.authenticator.google;
 
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
 import net.minidev.json.JSONArray;
 import net.minidev.json.JSONValue;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.oltu.oauth2.client.OAuthClient;
+import org.apache.oltu.oauth2.client.request.OAuthClientRequest;
 import org.apache.oltu.oauth2.client.response.OAuthClientResponse;
 import org.apache.oltu.oauth2.common.utils.JSONUtils;
-import org.wso2.carbon.identity.application.authentication.framework.config.builder.FileBasedConfigurationBuilder;
-import org.wso2.carbon.identity.application.authentication.framework.config.model.AuthenticatorConfig;
 import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
 import org.wso2.carbon.identity.application.authentication.framework.exception.AuthenticationFailedException;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
+import org.wso2.carbon.identity.application.authenticator.google.cache.GoogleUserInfoCache;
+import org.wso2.carbon.identity.application.authenticator.google.http.EndpointRejectedException;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleHttpClient;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleOutboundExecutor;
+import org.wso2.carbon.identity.application.authenticator.google.metrics.AuthenticationTrace;
+import org.wso2.carbon.identity.application.authenticator.google.metrics.GoogleAuthenticatorMetrics;
 import org.wso2.carbon.identity.application.authenticator.oidc.OIDCAuthenticatorConstants;
 import org.wso2.carbon.identity.application.authenticator.oidc.OpenIDConnectAuthenticator;
 import org.wso2.carbon.identity.application.common.model.ClaimMapping;
@@ -41,15 +49,20 @@ import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.utils.DiagnosticLog;
 
 import java.io.IOException;
+import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import static org.wso2.carbon.identity.application.authenticator.google.GoogleOAuth2AuthenticationConstant.LogConstants.OUTBOUND_AUTH_GOOGLE_SERVICE;
 
@@ -63,20 +76,48 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
     private static final String INTERNAL_SUBMISSION = "internal_submission";
     public static final String STATE = "state";
     private static final String G_CSRF_VALIDATED = "g_csrf_validated";
-    private String tokenEndpoint;
-    private String oAuthEndpoint;
-    private String userInfoURL;
+    private static final List<String> ID_TOKEN_PROTOCOL_CLAIMS = Arrays.asList("iss", "aud", "azp", "exp", "iat",
+            "nbf", "jti", "nonce", "at_hash", "c_hash", "auth_time");
+    private transient volatile GoogleAuthenticatorConfig config;
 
     /**
-     * Initiate tokenEndpoint
+     * Get the current configuration snapshot of the authenticator, resolving it on first use.
+     *
+     * @return The configuration snapshot.
      */
-    private void initTokenEndpoint() {
+    GoogleAuthenticatorConfig getConfig() {
 
-        this.tokenEndpoint = getAuthenticatorConfig().getParameterMap().get(GoogleOAuth2AuthenticationConstant
-                .GOOGLE_TOKEN_ENDPOINT);
-        if (StringUtils.isBlank(this.tokenEndpoint)) {
-            this.tokenEndpoint = IdentityApplicationConstants.GOOGLE_TOKEN_URL;
+        GoogleAuthenticatorConfig current = config;
+        if (current == null) {
+            current = reloadConfiguration();
         }
+        return current;
+    }
+
+    /**
+     * Set the configuration snapshot of the authenticator.
+     *
+     * @param config The configuration snapshot.
+     */
+    void setConfig(GoogleAuthenticatorConfig config) {
+
+        this.config = config;
+    }
+
+    /**
+     * Resolve the file based configuration of the authenticator again and publish it to all the threads.
+     *
+     * @return The new configuration snapshot.
+     */
+    public GoogleAuthenticatorConfig reloadConfiguration() {
+
+        GoogleAuthenticatorConfig current = new GoogleAuthenticatorConfig(getAuthenticatorConfig(),
+                super.getClaimDialectURI());
+        config = current;
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Loaded the configuration of the authenticator " + getName());
+        }
+        return current;
     }
 
     @Override
@@ -102,6 +143,7 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
                                 OAuthClientResponse oAuthResponse) throws AuthenticationFailedException {
 
         if (isOneTapEnabled(request)) {
+            long startTime = System.nanoTime();
             Map<String, String> authenticatorProperties = context.getAuthenticatorProperties();
             String clientID = authenticatorProperties.get(OIDCAuthenticatorConstants.CLIENT_ID);
 
@@ -114,6 +156,8 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
                 validateCSRF(request, clientID);
             }
 
+            Utils.configureJWTValidation(getConfig().getParameters());
+
             boolean validJWT = Utils.validateGoogleJWT(request.getParameter(CREDENTIAL), clientID,
                     request.getParameter(STATE), internalSubmission);
             if (!validJWT) {
@@ -123,6 +167,7 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
             }
             String idToken = request.getParameter(CREDENTIAL);
             context.setProperty(OIDCAuthenticatorConstants.ID_TOKEN, idToken);
+            AuthenticationTrace.recordPhase("OneTapValidation", startTime);
             return idToken;
         }
         return super.mapIdToken(context, request, oAuthResponse);
@@ -140,7 +185,7 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
      * @param clientID Google client ID.
      * @throws AuthenticationFailedException Error when CSRF validation failed.
      */
-    private void validateCSRF(HttpServletRequest request, String clientID) throws AuthenticationFailedException {
+    void validateCSRF(HttpServletRequest request, String clientID) throws AuthenticationFailedException {
 
         boolean validCookies = false;
         boolean validateCSRF = true;
@@ -156,17 +201,13 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
                 validCookies = true;
             }
         } else {
-            String enableCSRFValidationForGOT = getAuthenticatorConfig().getParameterMap()
-                    .get(GoogleOAuth2AuthenticationConstant.ENABLE_CSRF_VALIDATION_FOR_GOT);
-
-            if (StringUtils.isNotBlank(enableCSRFValidationForGOT)) {
-                validateCSRF = Boolean.parseBoolean(enableCSRFValidationForGOT);
-            }
+            validateCSRF = getConfig().isCSRFValidationForOneTapEnabled();
             if (validateCSRF) {
                 validCookies = validateCSRFCookies(request);
             }
         }
         if (validateCSRF && !validCookies) {
+            GoogleAuthenticatorMetrics.getInstance().recordCSRFFailure();
             throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages
                     .CSRF_VALIDATION_FAILED_ERROR.getCode(), String.format(GoogleErrorConstants.ErrorMessages
                     .CSRF_VALIDATION_FAILED_ERROR.getMessage(), clientID));
@@ -209,45 +250,81 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
             }
             return null;
         }
-        return super.requestAccessToken(request, context);
-    }
 
-    /**
-     * Initiate authorization server endpoint
-     */
-    private void initOAuthEndpoint() {
-        this.oAuthEndpoint = getAuthenticatorConfig().getParameterMap().get(GoogleOAuth2AuthenticationConstant
-                .GOOGLE_AUTHZ_ENDPOINT);
-        if (StringUtils.isBlank(this.oAuthEndpoint)) {
-            this.oAuthEndpoint = IdentityApplicationConstants.GOOGLE_OAUTH_URL;
-        }
+        OAuthClientResponse tokenResponse = super.requestAccessToken(request, context);
+        prefetchUserInfo(tokenResponse, context.getAuthenticatorProperties());
+        return tokenResponse;
     }
 
     /**
-     * Initialize the Yahoo user info url.
+     * Send the token request through the pooled connections of the {@link GoogleHttpClient} instead of a new
+     * connection per request. The request and its error handling are left to the parent OIDC authenticator.
+     *
+     * @param oAuthClient   OAuth client built by the parent OIDC authenticator, which is not used.
+     * @param accessRequest The access token request.
+     * @return The token response.
+     * @throws AuthenticationFailedException When the access token cannot be retrieved.
      */
-    private void initUserInfoURL() {
-
-        userInfoURL = getAuthenticatorConfig()
-                .getParameterMap()
-                .get(GoogleOAuth2AuthenticationConstant.GOOGLE_USERINFO_ENDPOINT);
+    @Override
+    protected OAuthClientResponse getOauthResponse(OAuthClient oAuthClient, OAuthClientRequest accessRequest)
+            throws AuthenticationFailedException {
 
-        if (userInfoURL == null) {
-            userInfoURL = IdentityApplicationConstants.GOOGLE_USERINFO_URL;
+        GoogleHttpClient httpClient = GoogleHttpClient.getInstance();
+        httpClient.configure(getConfig().getParameters());
+        long startTime = System.nanoTime();
+        boolean success = false;
+        try {
+            OAuthClientResponse tokenResponse = super.getOauthResponse(
+                    new OAuthClient(httpClient.getOAuthHttpClient()), accessRequest);
+            success = true;
+            return tokenResponse;
+        } finally {
+            GoogleAuthenticatorMetrics.getInstance().record(GoogleAuthenticatorMetrics.Phase.TOKEN_EXCHANGE,
+                    startTime, success);
         }
     }
 
     /**
-     * Get the user info endpoint url.
-     * @return User info endpoint url.
+     * Start fetching the user info on the outbound executor, if user info prefetching is enabled and the user info
+     * endpoint is going to be called anyway. The fetch then overlaps with the ID token processing, and is joined
+     * when the subject attributes are resolved.
+     *
+     * @param token                   The token response.
+     * @param authenticatorProperties Authenticator properties of the IdP.
      */
-    private String getUserInfoURL() {
+    private void prefetchUserInfo(OAuthClientResponse token, Map<String, String> authenticatorProperties) {
 
-        if(userInfoURL == null) {
-            initUserInfoURL();
+        Map<String, String> parameters = getConfig().getParameters();
+        if (!Boolean.parseBoolean(parameters.get(GoogleOAuth2AuthenticationConstant.ENABLE_USER_INFO_PREFETCH))) {
+            return;
         }
+        // Do not fetch if the claims may be resolved from the ID token or the user info cache.
+        GoogleUserInfoCache userInfoCache = GoogleUserInfoCache.getInstance();
+        userInfoCache.configure(parameters);
+        if (authenticatorProperties != null && Boolean.parseBoolean(authenticatorProperties.get(
+                GoogleOAuth2AuthenticationConstant.RESOLVE_CLAIMS_FROM_ID_TOKEN)) || userInfoCache.isEnabled()) {
+            return;
+        }
+        String accessToken = token.getParam(OIDCAuthenticatorConstants.ACCESS_TOKEN);
+        if (StringUtils.isBlank(accessToken)) {
+            return;
+        }
+        String url = getUserInfoEndpoint(token, authenticatorProperties);
+        GoogleOutboundExecutor executor = GoogleOutboundExecutor.getInstance();
+        executor.configure(parameters);
+        Future<UserInfoPrefetch.Response> response = executor.submit(
+                () -> UserInfoPrefetch.fetch(() -> sendRequest(url, accessToken)));
+        if (response != null) {
+            UserInfoPrefetch.start(token, response);
+        }
+    }
+
+    @Override
+    protected String sendRequest(String url, String accessToken) throws IOException {
 
-        return userInfoURL;
+        GoogleHttpClient httpClient = GoogleHttpClient.getInstance();
+        httpClient.configure(getConfig().getParameters());
+        return httpClient.get(url, accessToken);
     }
 
     /**
@@ -258,10 +335,7 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
      */
     @Override
     protected String getAuthorizationServerEndpoint(Map<String, String> authenticatorProperties) {
-        if (StringUtils.isBlank(this.oAuthEndpoint)) {
-            initOAuthEndpoint();
-        }
-        return this.oAuthEndpoint;
+        return getConfig().getAuthorizationEndpoint();
     }
 
     /**
@@ -273,18 +347,15 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
     @Override
     protected String getTokenEndpoint(Map<String, String> authenticatorProperties) {
 
-        if (StringUtils.isBlank(this.tokenEndpoint)) {
-            initTokenEndpoint();
-        }
-        return this.tokenEndpoint;
+        return getConfig().getTokenEndpoint();
     }
 
     /**
-     * Get Scope
+     * Get Scope. The scope of Google is fixed, hence the same constant is returned for every identity provider.
      *
-     * @param scope
-     * @param authenticatorProperties
-     * @return
+     * @param scope                   this is not used currently in the method
+     * @param authenticatorProperties this is not used currently in the method
+     * @return scope
      */
     @Override
     protected String getScope(String scope,
@@ -309,9 +380,17 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
      */
     @Override
     protected String getUserInfoEndpoint(OAuthClientResponse token, Map<String, String> authenticatorProperties) {
-        return getUserInfoURL();
+        return getConfig().getUserInfoEndpoint();
     }
 
+    /**
+     * Get the additional query parameters of the authorization request. They are read from the authenticator
+     * properties of the identity provider with a single map lookup, and the parent OIDC authenticator appends them
+     * to the authorization URL.
+     *
+     * @param authenticatorProperties Authenticator properties of the identity provider.
+     * @return additional query parameters
+     */
     @Override
     protected String getQueryString(Map<String, String> authenticatorProperties) {
         return authenticatorProperties.get(GoogleOAuth2AuthenticationConstant.ADDITIONAL_QUERY_PARAMS);
@@ -369,6 +448,34 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
         googleOneTap.setDisplayOrder(++parameterCount);
         configProperties.add(googleOneTap);
 
+        Property resolveClaimsFromIdToken = new Property();
+        resolveClaimsFromIdToken.setName(GoogleOAuth2AuthenticationConstant.RESOLVE_CLAIMS_FROM_ID_TOKEN);
+        resolveClaimsFromIdToken.setDisplayName(
+                GoogleOAuth2AuthenticationConstant.RESOLVE_CLAIMS_FROM_ID_TOKEN_DISPLAY_NAME);
+        resolveClaimsFromIdToken.setRequired(false);
+        resolveClaimsFromIdToken.setType("boolean");
+        resolveClaimsFromIdToken.setDescription(
+                GoogleOAuth2AuthenticationConstant.RESOLVE_CLAIMS_FROM_ID_TOKEN_DESCRIPTION);
+        resolveClaimsFromIdToken.setDisplayOrder(++parameterCount);
+        configProperties.add(resolveClaimsFromIdToken);
+
+        Property idTokenRequiredClaims = new Property();
+        idTokenRequiredClaims.setName(GoogleOAuth2AuthenticationConstant.ID_TOKEN_REQUIRED_CLAIMS);
+        idTokenRequiredClaims.setDisplayName(GoogleOAuth2AuthenticationConstant.ID_TOKEN_REQUIRED_CLAIMS_DISPLAY_NAME);
+        idTokenRequiredClaims.setRequired(false);
+        idTokenRequiredClaims.setValue(GoogleOAuth2AuthenticationConstant.DEFAULT_ID_TOKEN_REQUIRED_CLAIMS);
+        idTokenRequiredClaims.setDescription(GoogleOAuth2AuthenticationConstant.ID_TOKEN_REQUIRED_CLAIMS_DESCRIPTION);
+        idTokenRequiredClaims.setDisplayOrder(++parameterCount);
+        configProperties.add(idTokenRequiredClaims);
+
+        Property userInfoMaxStaleness = new Property();
+        userInfoMaxStaleness.setName(GoogleOAuth2AuthenticationConstant.USER_INFO_MAX_STALENESS);
+        userInfoMaxStaleness.setDisplayName(GoogleOAuth2AuthenticationConstant.USER_INFO_MAX_STALENESS_DISPLAY_NAME);
+        userInfoMaxStaleness.setRequired(false);
+        userInfoMaxStaleness.setDescription(GoogleOAuth2AuthenticationConstant.USER_INFO_MAX_STALENESS_DESCRIPTION);
+        userInfoMaxStaleness.setDisplayOrder(++parameterCount);
+        configProperties.add(userInfoMaxStaleness);
+
         return configProperties;
     }
 
@@ -394,63 +501,141 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
 
     @Override
     public String getClaimDialectURI() {
-        String claimDialectUri = super.getClaimDialectURI();
-        AuthenticatorConfig authConfig = FileBasedConfigurationBuilder.getInstance().getAuthenticatorBean(getName());
-        if (authConfig != null) {
-           Map<String, String> parameters = authConfig.getParameterMap();
-           if (parameters != null && parameters.containsKey(GoogleOAuth2AuthenticationConstant.
-                  CLAIM_DIALECT_URI_PARAMETER)) {
-               claimDialectUri = parameters.get(GoogleOAuth2AuthenticationConstant.CLAIM_DIALECT_URI_PARAMETER);
-           } else {
-               if (LOG.isDebugEnabled()) {
-                   LOG.debug("Found no Parameter map for connector " + getName());
-               }
-           }
-        } else {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("FileBasedConfigBuilder returned null AuthenticatorConfigs for the connector " +
-                        getName());
-            }
+
+        return getConfig().getClaimDialectURI();
+    }
+
+    @Override
+    protected void processAuthenticationResponse(HttpServletRequest request, HttpServletResponse response,
+                                                 AuthenticationContext context)
+            throws AuthenticationFailedException {
+
+        // Check once per login, by identity, whether the framework replaced the authenticator configuration.
+        if (!getConfig().isResolvedFrom(getAuthenticatorConfig())) {
+            reloadConfiguration();
         }
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Authenticator " + getName() + " is using the claim dialect uri " + claimDialectUri);
+        AuthenticationTrace trace = LoggerUtils.isDiagnosticLogsEnabled() ? AuthenticationTrace.start() : null;
+        boolean success = false;
+        try {
+            super.processAuthenticationResponse(request, response, context);
+            success = true;
+        } catch (AuthenticationFailedException e) {
+            GoogleAuthenticatorMetrics.getInstance().recordError(e.getErrorCode());
+            throw e;
+        } finally {
+            // Do not leave a user info fetch running if the login failed before the subject attributes.
+            UserInfoPrefetch.cancel();
+            if (trace != null) {
+                AuthenticationTrace.end();
+                triggerPhaseTimingDiagnosticLog(trace, success);
+            }
         }
-        return claimDialectUri;
+    }
+
+    /**
+     * Emit a single diagnostic log event with the time spent in each phase of the login and the cache outcomes.
+     *
+     * @param trace   The trace of the login.
+     * @param success Whether the authentication response was processed successfully.
+     */
+    private void triggerPhaseTimingDiagnosticLog(AuthenticationTrace trace, boolean success) {
+
+        DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new DiagnosticLog.DiagnosticLogBuilder(
+                getComponentId(), FrameworkConstants.LogConstants.ActionIDs.PROCESS_AUTHENTICATION_RESPONSE);
+        diagnosticLogBuilder.resultStatus(success ? DiagnosticLog.ResultStatus.SUCCESS :
+                        DiagnosticLog.ResultStatus.FAILED)
+                .logDetailLevel(DiagnosticLog.LogDetailLevel.INTERNAL_SYSTEM)
+                .inputParam(GoogleOAuth2AuthenticationConstant.LogConstants.ELAPSED_TIME, trace.getElapsedMillis())
+                .inputParam(GoogleOAuth2AuthenticationConstant.LogConstants.PHASE_DURATIONS,
+                        trace.getPhaseDurations())
+                .inputParam(GoogleOAuth2AuthenticationConstant.LogConstants.PHASE_START_OFFSETS,
+                        trace.getPhaseStartOffsets())
+                .inputParam(GoogleOAuth2AuthenticationConstant.LogConstants.PHASE_FLAGS, trace.getFlags())
+                .resultMessage("Processed the Google authentication response.");
+        LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
     }
 
     @Override
     protected void buildClaimMappings(Map<ClaimMapping, String> claims, Map.Entry<String, Object> entry, String separator) {
-        String claimValue = null;
-        String claimUri   = "";
         if (StringUtils.isBlank(separator)) {
             separator = IdentityCoreConstants.MULTI_ATTRIBUTE_SEPARATOR_DEFAULT;
         }
+        String claimValue = flattenClaimValue(entry.getValue(), separator);
+        GoogleAuthenticatorConfig currentConfig = getConfig();
+        claims.put(currentConfig.getClaimMapping(entry.getKey()), claimValue);
+        if (LOG.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.USER_CLAIMS)) {
+            String claimUri = currentConfig.getClaimURIPrefix() + entry.getKey();
+            LOG.debug("Adding claim mapping : " + claimUri + " <> " + claimUri + " : " + claimValue);
+        }
+    }
+
+    /**
+     * Flatten a claim value to a string, joining the values of a multi valued claim with the separator.
+     * The already parsed value is inspected by its type. Values whose string form could be read differently by the
+     * JSON parser, such as strings starting with '[', are flattened by {@link #flattenClaimValueAsJSON} so that the
+     * output stays the same as parsing the string form of every value.
+     *
+     * @param value     Claim value.
+     * @param separator Multi attribute separator.
+     * @return The flattened claim value, or null for an empty multi valued claim.
+     */
+    private static String flattenClaimValue(Object value, String separator) {
+
+        if (value instanceof String) {
+            String trimmedValue = ((String) value).trim();
+            if (trimmedValue.isEmpty() || trimmedValue.charAt(0) == '[' || "null".equalsIgnoreCase(trimmedValue)) {
+                return flattenClaimValueAsJSON(value, separator);
+            }
+            return (String) value;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Map) {
+            return value.toString();
+        }
+        if (value instanceof JSONArray) {
+            JSONArray values = (JSONArray) value;
+            if (values.isEmpty()) {
+                return null;
+            }
+            StringBuilder claimValue = new StringBuilder();
+            boolean firstValue = true;
+            for (Object element : values) {
+                // Other element types may not read back the same from their JSON form.
+                if (!(element instanceof String || element instanceof Integer || element instanceof Long
+                        || element instanceof Boolean)) {
+                    return flattenClaimValueAsJSON(value, separator);
+                }
+                if (!firstValue) {
+                    claimValue.append(separator);
+                }
+                claimValue.append(element);
+                firstValue = false;
+            }
+            return claimValue.toString();
+        }
+        return flattenClaimValueAsJSON(value, separator);
+    }
+
+    /**
+     * Flatten a claim value by parsing its string form as a JSON array.
+     */
+    private static String flattenClaimValueAsJSON(Object value, String separator) {
+
+        String claimValue = null;
         try {
-            JSONArray jsonArray = (JSONArray) JSONValue.parseWithException(entry.getValue().toString());
+            JSONArray jsonArray = (JSONArray) JSONValue.parseWithException(value.toString());
             if (jsonArray != null && jsonArray.size() > 0) {
+                StringBuilder joinedValue = new StringBuilder();
                 Iterator attributeIterator = jsonArray.iterator();
+                joinedValue.append(attributeIterator.next().toString());
                 while (attributeIterator.hasNext()) {
-                    if (claimValue == null) {
-                        claimValue = attributeIterator.next().toString();
-                    } else {
-                        claimValue = claimValue + separator + attributeIterator.next().toString();
-                    }
+                    joinedValue.append(separator).append(attributeIterator.next().toString());
                 }
-
+                claimValue = joinedValue.toString();
             }
         } catch (Exception e) {
-            claimValue = entry.getValue().toString();
-        }
-        String claimDialectUri = getClaimDialectURI();
-        if (super.getClaimDialectURI() != null && !super.getClaimDialectURI().equals(claimDialectUri)) {
-            claimUri = claimDialectUri + "/";
-        }
-
-        claimUri += entry.getKey();
-        claims.put(ClaimMapping.build(claimUri, claimUri, null, false), claimValue);
-        if (LOG.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.USER_CLAIMS)) {
-            LOG.debug("Adding claim mapping : " + claimUri + " <> " + claimUri + " : " + claimValue);
+            claimValue = value.toString();
         }
+        return claimValue;
     }
 
     /**
@@ -468,42 +653,170 @@ public class GoogleOAuth2Authenticator extends OpenIDConnectAuthenticator {
         if (token == null) {
             return claims;
         }
+
+        long startTime = System.nanoTime();
+        resolveSubjectAttributes(claims, token, authenticatorProperties);
+        AuthenticationTrace.recordPhase("SubjectAttributes", startTime);
+        return claims;
+    }
+
+    private void resolveSubjectAttributes(Map<ClaimMapping, String> claims, OAuthClientResponse token,
+                                          Map<String, String> authenticatorProperties) {
+
+        if (authenticatorProperties == null) {
+            authenticatorProperties = new HashMap<>();
+        }
+        GoogleUserInfoCache userInfoCache = GoogleUserInfoCache.getInstance();
+        userInfoCache.configure(getConfig().getParameters());
+        boolean resolveFromIdToken = Boolean.parseBoolean(authenticatorProperties.get(
+                GoogleOAuth2AuthenticationConstant.RESOLVE_CLAIMS_FROM_ID_TOKEN));
+
+        Map<String, Object> idTokenClaims = null;
+        if (resolveFromIdToken || userInfoCache.isEnabled()) {
+            idTokenClaims = getIdTokenUserClaims(token);
+        }
+        if (resolveFromIdToken && idTokenClaims != null && hasRequiredClaims(idTokenClaims, authenticatorProperties)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Resolving the user claims from the ID token without calling the user info endpoint.");
+            }
+            AuthenticationTrace.recordFlag("ClaimsFromIdToken", true);
+            addSubjectAttributes(claims, idTokenClaims);
+            return;
+        }
+
+        String accessToken = token.getParam(OIDCAuthenticatorConstants.ACCESS_TOKEN);
+        String userInfoCacheKey = null;
+        if (userInfoCache.isEnabled()) {
+            Object subject = idTokenClaims == null ? null : idTokenClaims.get("sub");
+            userInfoCacheKey = GoogleUserInfoCache.getKey(authenticatorProperties.get(
+                    OIDCAuthenticatorConstants.CLIENT_ID), subject == null ? null : subject.toString(), accessToken);
+            long maxStaleness = TimeUnit.SECONDS.toMillis(Utils.getLongParameter(authenticatorProperties,
+                    GoogleOAuth2AuthenticationConstant.USER_INFO_MAX_STALENESS, 0));
+            Map<String, Object> cachedUserInfo = userInfoCache.get(userInfoCacheKey, maxStaleness);
+            AuthenticationTrace.recordFlag("UserInfoCacheHit", cachedUserInfo != null);
+            if (cachedUserInfo != null) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Resolving the user claims from the cached user info response.");
+                }
+                addSubjectAttributes(claims, cachedUserInfo);
+                return;
+            }
+        }
+
+        UserInfoPrefetch prefetch = UserInfoPrefetch.take(token);
+        AuthenticationTrace.recordFlag("UserInfoPrefetched", prefetch != null);
         try {
-            String accessToken = token.getParam(OIDCAuthenticatorConstants.ACCESS_TOKEN);
-            String url = getUserInfoEndpoint(token, authenticatorProperties);
-            String json = sendRequest(url, accessToken);
+            String json = prefetch != null ? prefetch.await() :
+                    fetchUserInfo(getUserInfoEndpoint(token, authenticatorProperties), accessToken);
 
             if (StringUtils.isBlank(json)) {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Empty JSON response from user info endpoint. Unable to fetch user claims." +
                             " Proceeding without user claims");
                 }
-                return claims;
+                return;
             }
 
-            Map<String, Object> jsonObject = JSONUtils.parseJSON(json);
+            Map<String, Object> userInfo = JSONUtils.parseJSON(json);
+            userInfoCache.put(userInfoCacheKey, Collections.unmodifiableMap(userInfo));
+            addSubjectAttributes(claims, userInfo);
+        } catch (IOException e) {
+            if (e instanceof EndpointRejectedException) {
+                // The login continues with the claims in the ID token, as it does when the endpoint is unreachable.
+                GoogleAuthenticatorMetrics.getInstance().recordError(
+                        GoogleErrorConstants.ErrorMessages.GOOGLE_ENDPOINT_UNAVAILABLE.getCode());
+                LOG.warn(String.format(GoogleErrorConstants.ErrorMessages.GOOGLE_ENDPOINT_UNAVAILABLE.getMessage(),
+                        GoogleHttpClient.USER_INFO_ENDPOINT, e.getMessage()));
+                return;
+            }
+            LOG.error("Communication error occurred while accessing user info endpoint", e);
+        }
+    }
 
-            for (Map.Entry<String, Object> data : jsonObject.entrySet()) {
-                String key = data.getKey();
-                Object value = data.getValue();
-                String claimDialectUri = getClaimDialectURI();
-                if (super.getClaimDialectURI() != null && !super.getClaimDialectURI().equals(claimDialectUri)) {
-                    key = claimDialectUri + "/" + key;
-                }
-                if (value != null) {
-                    claims.put(ClaimMapping.build(key, key, null, false), value.toString());
-                }
+    private String fetchUserInfo(String url, String accessToken) throws IOException {
+
+        long startTime = System.nanoTime();
+        boolean fetched = false;
+        try {
+            String json = sendRequest(url, accessToken);
+            fetched = true;
+            return json;
+        } finally {
+            GoogleAuthenticatorMetrics.getInstance().record(GoogleAuthenticatorMetrics.Phase.USER_INFO_FETCH,
+                    startTime, fetched);
+        }
+    }
+
+    private void addSubjectAttributes(Map<ClaimMapping, String> claims, Map<String, Object> jsonObject) {
 
-                if (LOG.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.USER_CLAIMS)
-                        && jsonObject.get(key) != null) {
-                    LOG.debug("Adding claims from end-point data mapping : " + key + " - " + jsonObject.get(key)
-                            .toString());
+        long startTime = System.nanoTime();
+        GoogleAuthenticatorConfig currentConfig = getConfig();
+        for (Map.Entry<String, Object> data : jsonObject.entrySet()) {
+            Object value = data.getValue();
+            if (value != null) {
+                claims.put(currentConfig.getClaimMapping(data.getKey()), value.toString());
+            }
+
+            String key = currentConfig.getClaimURIPrefix() + data.getKey();
+            if (LOG.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.USER_CLAIMS)
+                    && jsonObject.get(key) != null) {
+                LOG.debug("Adding claims from end-point data mapping : " + key + " - " + jsonObject.get(key)
+                        .toString());
+            }
+        }
+        GoogleAuthenticatorMetrics.getInstance().record(GoogleAuthenticatorMetrics.Phase.CLAIM_MAPPING, startTime,
+                true);
+    }
+
+    /**
+     * Get the user claims of the ID token received from the token endpoint. The ID token is received directly
+     * from Google over TLS, hence its claims are as trustworthy as the user info response.
+     *
+     * @param token Token endpoint response.
+     * @return The user claims of the ID token, or null if there is no readable ID token.
+     */
+    private Map<String, Object> getIdTokenUserClaims(OAuthClientResponse token) {
+
+        String idToken = token.getParam(OIDCAuthenticatorConstants.ID_TOKEN);
+        if (StringUtils.isBlank(idToken)) {
+            return null;
+        }
+        try {
+            JWTClaimsSet claimsSet = SignedJWT.parse(idToken).getJWTClaimsSet();
+            if (claimsSet == null) {
+                return null;
+            }
+            Map<String, Object> userClaims = new HashMap<>(claimsSet.getClaims());
+            // Drop the token claims which are not returned by the user info endpoint.
+            userClaims.keySet().removeAll(ID_TOKEN_PROTOCOL_CLAIMS);
+            return userClaims;
+        } catch (ParseException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Error while reading the claims of the ID token. Falling back to the user info endpoint.",
+                        e);
+            }
+            return null;
+        }
+    }
+
+    private static boolean hasRequiredClaims(Map<String, Object> idTokenClaims,
+                                             Map<String, String> authenticatorProperties) {
+
+        String requiredClaims = authenticatorProperties.get(
+                GoogleOAuth2AuthenticationConstant.ID_TOKEN_REQUIRED_CLAIMS);
+        if (StringUtils.isBlank(requiredClaims)) {
+            requiredClaims = GoogleOAuth2AuthenticationConstant.DEFAULT_ID_TOKEN_REQUIRED_CLAIMS;
+        }
+        for (String requiredClaim : requiredClaims.split(",")) {
+            if (StringUtils.isNotBlank(requiredClaim) && idTokenClaims.get(requiredClaim.trim()) == null) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Required claim " + requiredClaim.trim() + " is not found in the ID token. " +
+                            "Calling the user info endpoint.");
                 }
+                return false;
             }
-        } catch (IOException e) {
-            LOG.error("Communication error occurred while accessing user info endpoint", e);
         }
-        return claims;
+        return true;
     }
 
     @Override
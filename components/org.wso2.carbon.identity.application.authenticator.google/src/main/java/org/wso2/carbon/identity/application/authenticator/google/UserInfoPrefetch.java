@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google;
+
+import org.apache.oltu.oauth2.client.response.OAuthClientResponse;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleRetryPolicy;
+import org.wso2.carbon.identity.application.authenticator.google.metrics.GoogleAuthenticatorMetrics;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A user info fetch started as soon as the access token of a code flow login is received, so that it runs while
+ * the ID token is processed on the request thread. The pending fetch is held on the request thread until the
+ * subject attributes of the same token response are resolved, and cancelled if the login ends before that.
+ * <p>
+ * The fetch only measures itself on the executor thread. Its phase is recorded on the request thread when the
+ * fetch is joined, so that it is part of the authentication trace of the login.
+ */
+final class UserInfoPrefetch {
+
+    private static final ThreadLocal<UserInfoPrefetch> CURRENT = new ThreadLocal<>();
+
+    private final OAuthClientResponse token;
+    private final Future<Response> response;
+
+    private UserInfoPrefetch(OAuthClientResponse token, Future<Response> response) {
+
+        this.token = token;
+        this.response = response;
+    }
+
+    /**
+     * Fetch the user info and measure the call. Runs on the executor thread.
+     *
+     * @param call The user info call.
+     * @return The response body or the failure of the call, with its timing.
+     */
+    static Response fetch(GoogleRetryPolicy.Fetch<String> call) {
+
+        long startTime = System.nanoTime();
+        try {
+            String body = call.fetch();
+            return new Response(body, null, startTime, System.nanoTime() - startTime);
+        } catch (IOException e) {
+            return new Response(null, e, startTime, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Hold a started fetch on the current thread, cancelling any fetch left behind.
+     *
+     * @param token    The token response the fetch was started for.
+     * @param response The pending user info response.
+     */
+    static void start(OAuthClientResponse token, Future<Response> response) {
+
+        cancel();
+        CURRENT.set(new UserInfoPrefetch(token, response));
+    }
+
+    /**
+     * Take the fetch started for the given token response from the current thread. A fetch started for another
+     * token response is cancelled.
+     *
+     * @param token The token response.
+     * @return The fetch, or null if none was started for the token response.
+     */
+    static UserInfoPrefetch take(OAuthClientResponse token) {
+
+        UserInfoPrefetch prefetch = CURRENT.get();
+        if (prefetch == null) {
+            return null;
+        }
+        CURRENT.remove();
+        if (prefetch.token != token) {
+            prefetch.response.cancel(true);
+            return null;
+        }
+        return prefetch;
+    }
+
+    /**
+     * Cancel the fetch held on the current thread, if there is one.
+     */
+    static void cancel() {
+
+        UserInfoPrefetch prefetch = CURRENT.get();
+        if (prefetch != null) {
+            CURRENT.remove();
+            prefetch.response.cancel(true);
+        }
+    }
+
+    /**
+     * Wait for the user info response, and record the fetch phase on the current thread.
+     *
+     * @return The response body.
+     * @throws IOException If the fetch failed or the wait was interrupted.
+     */
+    String await() throws IOException {
+
+        Response fetched;
+        try {
+            fetched = response.get();
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the user info response.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error while fetching the user info.", e.getCause());
+        }
+        GoogleAuthenticatorMetrics.getInstance().record(GoogleAuthenticatorMetrics.Phase.USER_INFO_FETCH,
+                fetched.startTime, fetched.duration, fetched.failure == null);
+        if (fetched.failure != null) {
+            throw fetched.failure;
+        }
+        return fetched.body;
+    }
+
+    /**
+     * Outcome of a user info fetch made on the executor thread.
+     */
+    static final class Response {
+
+        private final String body;
+        private final IOException failure;
+        private final long startTime;
+        private final long duration;
+
+        private Response(String body, IOException failure, long startTime, long duration) {
+
+            this.body = body;
+            this.failure = failure;
+            this.startTime = startTime;
+            this.duration = duration;
+        }
+    }
+}
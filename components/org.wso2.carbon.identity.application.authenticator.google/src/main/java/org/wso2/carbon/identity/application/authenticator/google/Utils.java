@@ -18,35 +18,29 @@
 
 package org.wso2.carbon.identity.application.authenticator.google;
 
-import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.jwk.source.RemoteJWKSet;
-import com.nimbusds.jose.proc.BadJOSEException;
-import com.nimbusds.jose.proc.JWSKeySelector;
-import com.nimbusds.jose.proc.JWSVerificationKeySelector;
-import com.nimbusds.jose.proc.SecurityContext;
-import com.nimbusds.jwt.JWT;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.JWTParser;
-import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
-import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.nimbusds.jwt.SignedJWT;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.authentication.framework.exception.AuthenticationFailedException;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleRetryPolicy;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.CredentialValidationRequest;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.CredentialValidationResult;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.GoogleJWKSetCache;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.GoogleJWTBatchValidator;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.GoogleJWTValidator;
+import org.wso2.carbon.identity.application.authenticator.google.metrics.GoogleAuthenticatorMetrics;
 
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.text.ParseException;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This is a utility classes for Google authenticator.
  */
 public class Utils {
 
-    private static final List<String> ISSUER = Arrays.asList("https://accounts.google.com", "accounts.google.com");
-    private static final String JWS_RS256_URI = "https://www.googleapis.com/oauth2/v3/certs";
-    private static final String JWS_ES256_URI = "https://www.gstatic.com/iap/verify/public_key-jwk";
+    private static final Log LOG = LogFactory.getLog(Utils.class);
     public static final String NONCE = "nonce";
 
     private Utils() {
@@ -66,77 +60,87 @@ public class Utils {
     public static boolean validateGoogleJWT(String idToken, String audience, String nonce, boolean internalSubmission)
             throws AuthenticationFailedException {
 
-        // Setting up the processor to verify the signature.
-        ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
-        jwtProcessor.setJWSKeySelector(generateKeySelector(idToken));
+        // The token is parsed only once and the parsed token is used for all the validations.
+        SignedJWT signedJWT = parseGoogleJWT(idToken);
 
-        // Process the token.
-        JWTClaimsSet claimsSet;
-        try {
-            claimsSet = jwtProcessor.process(idToken, null);
-        } catch (ParseException | BadJOSEException | JOSEException e) {
+        GoogleJWTValidator validator = GoogleJWTValidator.getInstance(signedJWT.getHeader().getAlgorithm(),
+                audience);
+        if (validator == null) {
             throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages
-                    .JWT_PROCESS_ERROR.getCode(), e.getMessage());
+                    .INVALID_JWK_SOURCE_URL.getCode(), String.format(GoogleErrorConstants.ErrorMessages
+                    .INVALID_JWK_SOURCE_URL.getMessage(), StringUtils.EMPTY));
         }
+        return validator.validate(signedJWT, nonce, internalSubmission);
+    }
 
-        // Verifying the issuers and audiences.
-        if (claimsSet != null && claimsSet.toJSONObject() != null && !claimsSet.toJSONObject().isEmpty()) {
-            if (internalSubmission) {
-                String nonceFromGoogle = String.valueOf(claimsSet.getClaim(NONCE));
-                if (StringUtils.isEmpty(nonce) || !nonce.equals(nonceFromGoogle)) {
-                    throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages
-                            .JWT_NONCE_ERROR.getCode(),
-                            GoogleErrorConstants.ErrorMessages.JWT_NONCE_ERROR.getMessage());
-                }
-            }
-            return ISSUER.contains(claimsSet.getIssuer()) && claimsSet.getAudience().contains(audience);
-        }
+    /**
+     * Validate a batch of Google One Tap credentials in parallel. The keys of each key ID are resolved once for the
+     * whole batch.
+     *
+     * @param requests The credentials with their audiences and nonces.
+     * @return The result of each credential, in the order of the requests.
+     */
+    public static List<CredentialValidationResult> validateGoogleJWTs(List<CredentialValidationRequest> requests) {
 
-        return false;
+        return GoogleJWTBatchValidator.getInstance().validate(requests);
     }
 
     /**
-     * This function generates the JWSKeySelector according to the hashing algorithm in the jwt token.
+     * Parse a Google One Tap credential.
      *
-     * @param idToken String The JWT token.
-     * @return JWSKeySelector<SecurityContext> The generated key selector according to the hashing algorithm.
-     * @throws AuthenticationFailedException When exceptions are thrown at parsing.
+     * @param idToken The jwt token string.
+     * @return The parsed credential.
+     * @throws AuthenticationFailedException When the credential is not a signed JWT.
      */
-    private static JWSKeySelector<SecurityContext> generateKeySelector(String idToken)
-            throws AuthenticationFailedException {
+    public static SignedJWT parseGoogleJWT(String idToken) throws AuthenticationFailedException {
 
-        JWSKeySelector<SecurityContext> jwsKeySelector;
-        JWT jwt;
+        long startTime = System.nanoTime();
         try {
-            jwt = JWTParser.parse(idToken);
+            SignedJWT signedJWT = SignedJWT.parse(idToken);
+            GoogleAuthenticatorMetrics.getInstance().record(GoogleAuthenticatorMetrics.Phase.JWT_PARSE, startTime,
+                    true);
+            return signedJWT;
         } catch (ParseException e) {
+            GoogleAuthenticatorMetrics.getInstance().record(GoogleAuthenticatorMetrics.Phase.JWT_PARSE, startTime,
+                    false);
             throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages.JWT_PARSE_ERROR.getCode(),
                     e.getMessage());
         }
-        // Class cast exception is handled while parsing the idToken.
-        JWSAlgorithm expectedAlgorithm = (JWSAlgorithm) jwt.getHeader().getAlgorithm();
-        String jwkSourceUrl = StringUtils.EMPTY;
-
-        if (JWSAlgorithm.RS256.equals(expectedAlgorithm)) {
-            jwkSourceUrl = JWS_RS256_URI;
-        } else if (JWSAlgorithm.ES256.equals(expectedAlgorithm)) {
-            jwkSourceUrl = JWS_ES256_URI;
-        }
+    }
 
-        if (StringUtils.isBlank(jwkSourceUrl)) {
-            throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages
-                    .INVALID_JWK_SOURCE_URL.getCode(), String.format(GoogleErrorConstants.ErrorMessages
-                    .INVALID_JWK_SOURCE_URL.getMessage(), jwkSourceUrl));
-        }
+    /**
+     * Apply the authenticator parameters used when validating Google One Tap credentials.
+     *
+     * @param parameters Authenticator parameter map.
+     */
+    public static void configureJWTValidation(Map<String, String> parameters) {
+
+        GoogleRetryPolicy.getInstance().configure(parameters);
+        GoogleJWKSetCache.getInstance().configure(parameters);
+        GoogleJWTValidator.configure(parameters);
+        GoogleJWTBatchValidator.getInstance().configure(parameters);
+    }
+
+    /**
+     * Read a numeric authenticator parameter.
+     *
+     * @param parameters    Authenticator parameter map.
+     * @param parameterName Name of the parameter.
+     * @param defaultValue  Value to use when the parameter is not configured or is invalid.
+     * @return The configured value or the default value.
+     */
+    public static long getLongParameter(Map<String, String> parameters, String parameterName, long defaultValue) {
 
+        String value = parameters.get(parameterName);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
         try {
-            jwsKeySelector =
-                    new JWSVerificationKeySelector<>(expectedAlgorithm, new RemoteJWKSet<>(new URL(jwkSourceUrl)));
-        } catch (MalformedURLException e) {
-            throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages
-                    .INVALID_JWK_SOURCE_URL.getCode(), String.format(GoogleErrorConstants.ErrorMessages
-                    .INVALID_JWK_SOURCE_URL.getMessage(), jwkSourceUrl));
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid value configured for " + parameterName + " : " + value + ". Using the default value "
+                    + defaultValue);
+            return defaultValue;
         }
-        return jwsKeySelector;
     }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe in-memory cache with an upper bound on the number of entries and an optional time to live.
+ * Reads do not take any locks. Once the cache grows beyond its limit, expired entries are removed first and then
+ * other entries are evicted in no particular order until the cache is back under the limit.
+ *
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ */
+public class BoundedCache<K, V> {
+
+    // Evict down to this fraction of the maximum size so that eviction does not run on every put.
+    private static final double EVICTION_TARGET_RATIO = 0.9;
+
+    private final int maxSize;
+    private final long timeToLive;
+    private final ConcurrentHashMap<K, CacheEntry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+
+    /**
+     * Create a bounded cache.
+     *
+     * @param maxSize    Maximum number of entries.
+     * @param timeToLive Time in milliseconds an entry stays valid. Entries do not expire if this is not positive.
+     */
+    public BoundedCache(int maxSize, long timeToLive) {
+
+        this.maxSize = Math.max(1, maxSize);
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Get a cached value.
+     *
+     * @param key Key of the entry.
+     * @return The cached value, or null if there is no valid entry for the key.
+     */
+    public V get(K key) {
+
+        return get(key, timeToLive);
+    }
+
+    /**
+     * Get a cached value only if it was cached within the given time.
+     *
+     * @param key    Key of the entry.
+     * @param maxAge Maximum age in milliseconds of an acceptable entry. Not positive means no limit other than the
+     *               time to live of the cache.
+     * @return The cached value, or null if there is no acceptable entry for the key.
+     */
+    public V get(K key, long maxAge) {
+
+        CacheEntry<V> entry = entries.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        long age = System.currentTimeMillis() - entry.createdTime;
+        if (timeToLive > 0 && age >= timeToLive) {
+            if (entries.remove(key, entry)) {
+                expirationCount.increment();
+            }
+            missCount.increment();
+            return null;
+        }
+        if (maxAge > 0 && age >= maxAge) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.value;
+    }
+
+    /**
+     * Add or replace a cached value.
+     *
+     * @param key   Key of the entry.
+     * @param value Value to cache.
+     */
+    public void put(K key, V value) {
+
+        entries.put(key, new CacheEntry<>(value, System.currentTimeMillis()));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void remove(K key) {
+
+        entries.remove(key);
+    }
+
+    public void clear() {
+
+        entries.clear();
+    }
+
+    public int size() {
+
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+
+        return maxSize;
+    }
+
+    public long getTimeToLive() {
+
+        return timeToLive;
+    }
+
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+
+        return evictionCount.sum();
+    }
+
+    public long getExpirationCount() {
+
+        return expirationCount.sum();
+    }
+
+    private void evict() {
+
+        // Only one thread needs to evict, others can continue with a slightly oversized cache.
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            if (timeToLive > 0) {
+                for (Iterator<Map.Entry<K, CacheEntry<V>>> iterator = entries.entrySet().iterator();
+                     iterator.hasNext(); ) {
+                    if (now - iterator.next().getValue().createdTime >= timeToLive) {
+                        iterator.remove();
+                        expirationCount.increment();
+                    }
+                }
+            }
+            int target = Math.max(1, (int) (maxSize * EVICTION_TARGET_RATIO));
+            for (Iterator<K> iterator = entries.keySet().iterator(); iterator.hasNext()
+                    && entries.size() > target; ) {
+                iterator.next();
+                iterator.remove();
+                evictionCount.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * A cached value along with the time it was cached.
+     */
+    private static class CacheEntry<V> {
+
+        private final V value;
+        private final long createdTime;
+
+        CacheEntry(V value, long createdTime) {
+
+            this.value = value;
+            this.createdTime = createdTime;
+        }
+    }
+}
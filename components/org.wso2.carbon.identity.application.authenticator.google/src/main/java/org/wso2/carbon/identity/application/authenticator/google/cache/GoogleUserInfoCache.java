@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleOAuth2AuthenticationConstant;
+import org.wso2.carbon.identity.application.authenticator.google.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide cache of the parsed Google user info responses, so that a user who logs into several applications
+ * within a short time does not cost a user info call per login. Entries are keyed by the client ID of the identity
+ * provider and the subject of the user, or a hash of the access token when the subject is not known.
+ * <p>
+ * The cache is disabled by default and enabled with the EnableUserInfoCache authenticator parameter.
+ */
+public class GoogleUserInfoCache {
+
+    private static final Log LOG = LogFactory.getLog(GoogleUserInfoCache.class);
+    private static final GoogleUserInfoCache INSTANCE = new GoogleUserInfoCache();
+
+    private volatile Map<String, String> appliedParameters;
+    private volatile BoundedCache<String, Map<String, Object>> cache;
+
+    private GoogleUserInfoCache() {
+
+    }
+
+    public static GoogleUserInfoCache getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Apply the user info cache related authenticator parameters. Cached entries are retained unless the size or
+     * the time to live of the cache changed.
+     *
+     * @param parameters Authenticator parameter map.
+     */
+    public void configure(Map<String, String> parameters) {
+
+        if (parameters == null || parameters == appliedParameters) {
+            return;
+        }
+        synchronized (this) {
+            if (!Boolean.parseBoolean(parameters.get(GoogleOAuth2AuthenticationConstant.ENABLE_USER_INFO_CACHE))) {
+                cache = null;
+            } else {
+                int size = (int) Utils.getLongParameter(parameters,
+                        GoogleOAuth2AuthenticationConstant.USER_INFO_CACHE_SIZE,
+                        GoogleOAuth2AuthenticationConstant.DEFAULT_USER_INFO_CACHE_SIZE);
+                long timeToLive = TimeUnit.SECONDS.toMillis(Utils.getLongParameter(parameters,
+                        GoogleOAuth2AuthenticationConstant.USER_INFO_CACHE_TTL,
+                        GoogleOAuth2AuthenticationConstant.DEFAULT_USER_INFO_CACHE_TTL));
+                BoundedCache<String, Map<String, Object>> current = cache;
+                if (current == null || current.getMaxSize() != Math.max(1, size)
+                        || current.getTimeToLive() != timeToLive) {
+                    cache = new BoundedCache<>(size, timeToLive);
+                }
+            }
+            appliedParameters = parameters;
+        }
+    }
+
+    public boolean isEnabled() {
+
+        return cache != null;
+    }
+
+    /**
+     * Get the cached user info claims.
+     *
+     * @param key    Cache key built with {@link #getKey(String, String, String)}.
+     * @param maxAge Maximum age in milliseconds of acceptable claims. Not positive means the cache time to live.
+     * @return The cached claims, or null if there are no acceptable claims.
+     */
+    public Map<String, Object> get(String key, long maxAge) {
+
+        BoundedCache<String, Map<String, Object>> current = cache;
+        return current == null || key == null ? null : current.get(key, maxAge);
+    }
+
+    public void put(String key, Map<String, Object> userInfo) {
+
+        BoundedCache<String, Map<String, Object>> current = cache;
+        if (current != null && key != null) {
+            current.put(key, userInfo);
+        }
+    }
+
+    /**
+     * Get the underlying cache to read its statistics.
+     *
+     * @return The cache, or null if the cache is disabled.
+     */
+    public BoundedCache<String, Map<String, Object>> getCache() {
+
+        return cache;
+    }
+
+    /**
+     * Build the cache key of a user.
+     *
+     * @param clientId    Client ID of the identity provider.
+     * @param subject     Subject of the user, if known.
+     * @param accessToken Access token of the user, used when the subject is not known.
+     * @return The cache key, or null if neither the subject nor the access token is available.
+     */
+    public static String getKey(String clientId, String subject, String accessToken) {
+
+        if (subject != null) {
+            return clientId + ":sub:" + subject;
+        }
+        if (accessToken == null) {
+            return null;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(accessToken.getBytes(StandardCharsets.UTF_8));
+            return clientId + ":at:" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            LOG.error("SHA-256 is not available to build the user info cache key.", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.http;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A circuit breaker which stops calling an endpoint while most of the recent calls fail or are slow.
+ * <p>
+ * While closed, the outcomes are counted in a fixed time window, and the breaker opens once the window has the
+ * minimum number of calls and the failure rate or the slow call rate reaches its threshold. An open breaker rejects
+ * all calls until the open duration passes, and then lets a limited number of probe calls through. The breaker
+ * closes if all the probes succeed in time and opens again otherwise.
+ * <p>
+ * Calls are admitted without locking while the breaker is closed. Only state transitions are synchronized.
+ */
+public class CircuitBreaker {
+
+    private static final Log LOG = LogFactory.getLog(CircuitBreaker.class);
+
+    /**
+     * State of a circuit breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final CircuitBreakerConfig config;
+    private volatile State state = State.CLOSED;
+    private volatile long openedTime;
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+    private final AtomicLong windowStartTime = new AtomicLong(System.currentTimeMillis());
+    private final LongAdder windowCalls = new LongAdder();
+    private final LongAdder windowFailures = new LongAdder();
+    private final LongAdder windowSlowCalls = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder openedCount = new LongAdder();
+
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+
+        this.name = name;
+        this.config = config;
+    }
+
+    /**
+     * Check whether a call is allowed. Every allowed call must be followed by {@link #onResult(long, boolean)}.
+     *
+     * @return Whether the call is allowed.
+     */
+    public boolean tryAcquire() {
+
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (System.currentTimeMillis() - openedTime < config.getOpenDuration()) {
+                rejectedCount.increment();
+                return false;
+            }
+            halfOpen();
+        }
+        while (true) {
+            int permits = halfOpenPermits.get();
+            if (permits <= 0 || state != State.HALF_OPEN) {
+                rejectedCount.increment();
+                return false;
+            }
+            if (halfOpenPermits.compareAndSet(permits, permits - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Record the outcome of an allowed call.
+     *
+     * @param nanos   Time taken by the call in nanoseconds.
+     * @param success Whether the call succeeded.
+     */
+    public void onResult(long nanos, boolean success) {
+
+        boolean slow = nanos >= config.getSlowCallThresholdNanos();
+        State current = state;
+        if (current == State.HALF_OPEN) {
+            if (!success || slow) {
+                open(State.HALF_OPEN, "a probe call " + (success ? "was slow" : "failed"));
+            } else if (halfOpenSuccesses.incrementAndGet() >= config.getHalfOpenCalls()) {
+                close();
+            }
+            return;
+        }
+        if (current != State.CLOSED) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long windowStart = windowStartTime.get();
+        if (now - windowStart >= config.getWindow() && windowStartTime.compareAndSet(windowStart, now)) {
+            windowCalls.reset();
+            windowFailures.reset();
+            windowSlowCalls.reset();
+        }
+        windowCalls.increment();
+        if (!success) {
+            windowFailures.increment();
+        }
+        if (slow) {
+            windowSlowCalls.increment();
+        }
+        long calls = windowCalls.sum();
+        if (calls < config.getMinimumCalls()) {
+            return;
+        }
+        if (windowFailures.sum() * 100 >= config.getFailureRate() * calls) {
+            open(State.CLOSED, "the failure rate reached " + config.getFailureRate() + "%");
+        } else if (windowSlowCalls.sum() * 100 >= config.getSlowCallRate() * calls) {
+            open(State.CLOSED, "the slow call rate reached " + config.getSlowCallRate() + "%");
+        }
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public State getState() {
+
+        return state;
+    }
+
+    public CircuitBreakerConfig getConfig() {
+
+        return config;
+    }
+
+    /**
+     * Get the number of calls rejected because the breaker was open.
+     *
+     * @return The rejected call count.
+     */
+    public long getRejectedCount() {
+
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Get the number of times the breaker opened.
+     *
+     * @return The open count.
+     */
+    public long getOpenedCount() {
+
+        return openedCount.sum();
+    }
+
+    private synchronized void open(State expected, String reason) {
+
+        if (state != expected) {
+            return;
+        }
+        openedTime = System.currentTimeMillis();
+        state = State.OPEN;
+        openedCount.increment();
+        LOG.warn("Circuit breaker of the Google " + name + " endpoint opened as " + reason + ". Calls are " +
+                "rejected for " + config.getOpenDuration() + " ms.");
+    }
+
+    private synchronized void halfOpen() {
+
+        if (state != State.OPEN || System.currentTimeMillis() - openedTime < config.getOpenDuration()) {
+            return;
+        }
+        halfOpenSuccesses.set(0);
+        halfOpenPermits.set(config.getHalfOpenCalls());
+        state = State.HALF_OPEN;
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Circuit breaker of the Google " + name + " endpoint is half open. Probing with " +
+                    config.getHalfOpenCalls() + " calls.");
+        }
+    }
+
+    private synchronized void close() {
+
+        if (state != State.HALF_OPEN) {
+            return;
+        }
+        windowStartTime.set(System.currentTimeMillis());
+        windowCalls.reset();
+        windowFailures.reset();
+        windowSlowCalls.reset();
+        state = State.CLOSED;
+        LOG.info("Circuit breaker of the Google " + name + " endpoint closed after successful probe calls.");
+    }
+}
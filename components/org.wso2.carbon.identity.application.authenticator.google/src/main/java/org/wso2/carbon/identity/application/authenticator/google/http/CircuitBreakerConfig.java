@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.http;
+
+import org.wso2.carbon.identity.application.authenticator.google.GoogleOAuth2AuthenticationConstant;
+import org.wso2.carbon.identity.application.authenticator.google.Utils;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable configuration of the {@link CircuitBreaker} and the concurrency limit of a Google endpoint. Both are
+ * disabled unless explicitly enabled. All the durations are in milliseconds.
+ */
+public class CircuitBreakerConfig {
+
+    private final boolean circuitBreakerEnabled;
+    private final boolean bulkheadEnabled;
+    private final int maxConcurrentCalls;
+    private final long maxConcurrentCallsWait;
+    private final long failureRate;
+    private final long slowCallRate;
+    private final long slowCallThreshold;
+    private final long minimumCalls;
+    private final long window;
+    private final long openDuration;
+    private final int halfOpenCalls;
+
+    /**
+     * Read the configuration from the authenticator parameters.
+     *
+     * @param parameters Authenticator parameter map.
+     */
+    public CircuitBreakerConfig(Map<String, String> parameters) {
+
+        circuitBreakerEnabled = Boolean.parseBoolean(
+                parameters.get(GoogleOAuth2AuthenticationConstant.ENABLE_CIRCUIT_BREAKER));
+        bulkheadEnabled = Boolean.parseBoolean(parameters.get(GoogleOAuth2AuthenticationConstant.ENABLE_BULKHEAD));
+        maxConcurrentCalls = (int) Math.max(1, Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.HTTP_MAX_CONCURRENT_CALLS,
+                Utils.getLongParameter(parameters, GoogleOAuth2AuthenticationConstant.HTTP_MAX_CONNECTIONS_PER_ROUTE,
+                        GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_MAX_CONNECTIONS_PER_ROUTE)));
+        maxConcurrentCallsWait = Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.HTTP_MAX_CONCURRENT_CALLS_WAIT,
+                Utils.getLongParameter(parameters, GoogleOAuth2AuthenticationConstant.HTTP_CONNECTION_REQUEST_TIMEOUT,
+                        GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_CONNECTION_REQUEST_TIMEOUT));
+        failureRate = Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.CIRCUIT_BREAKER_FAILURE_RATE,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_CIRCUIT_BREAKER_FAILURE_RATE);
+        slowCallRate = Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.CIRCUIT_BREAKER_SLOW_CALL_RATE,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_CIRCUIT_BREAKER_SLOW_CALL_RATE);
+        slowCallThreshold = Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.CIRCUIT_BREAKER_SLOW_CALL_THRESHOLD,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_CIRCUIT_BREAKER_SLOW_CALL_THRESHOLD);
+        minimumCalls = Math.max(1, Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.CIRCUIT_BREAKER_MINIMUM_CALLS,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_CIRCUIT_BREAKER_MINIMUM_CALLS));
+        window = TimeUnit.SECONDS.toMillis(Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.CIRCUIT_BREAKER_WINDOW,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_CIRCUIT_BREAKER_WINDOW));
+        openDuration = TimeUnit.SECONDS.toMillis(Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.CIRCUIT_BREAKER_OPEN_DURATION,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION));
+        halfOpenCalls = (int) Math.max(1, Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.CIRCUIT_BREAKER_HALF_OPEN_CALLS,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_CIRCUIT_BREAKER_HALF_OPEN_CALLS));
+    }
+
+    public boolean isCircuitBreakerEnabled() {
+
+        return circuitBreakerEnabled;
+    }
+
+    public boolean isBulkheadEnabled() {
+
+        return bulkheadEnabled;
+    }
+
+    public int getMaxConcurrentCalls() {
+
+        return maxConcurrentCalls;
+    }
+
+    public long getMaxConcurrentCallsWait() {
+
+        return maxConcurrentCallsWait;
+    }
+
+    public long getFailureRate() {
+
+        return failureRate;
+    }
+
+    public long getSlowCallRate() {
+
+        return slowCallRate;
+    }
+
+    public long getSlowCallThreshold() {
+
+        return slowCallThreshold;
+    }
+
+    long getSlowCallThresholdNanos() {
+
+        return TimeUnit.MILLISECONDS.toNanos(slowCallThreshold);
+    }
+
+    public long getMinimumCalls() {
+
+        return minimumCalls;
+    }
+
+    public long getWindow() {
+
+        return window;
+    }
+
+    public long getOpenDuration() {
+
+        return openDuration;
+    }
+
+    public int getHalfOpenCalls() {
+
+        return halfOpenCalls;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CircuitBreakerConfig that = (CircuitBreakerConfig) o;
+        return circuitBreakerEnabled == that.circuitBreakerEnabled
+                && bulkheadEnabled == that.bulkheadEnabled
+                && maxConcurrentCalls == that.maxConcurrentCalls
+                && maxConcurrentCallsWait == that.maxConcurrentCallsWait
+                && failureRate == that.failureRate
+                && slowCallRate == that.slowCallRate
+                && slowCallThreshold == that.slowCallThreshold
+                && minimumCalls == that.minimumCalls
+                && window == that.window
+                && openDuration == that.openDuration
+                && halfOpenCalls == that.halfOpenCalls;
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(circuitBreakerEnabled, bulkheadEnabled, maxConcurrentCalls, maxConcurrentCallsWait,
+                failureRate, slowCallRate, slowCallThreshold, minimumCalls, window, openDuration, halfOpenCalls);
+    }
+}
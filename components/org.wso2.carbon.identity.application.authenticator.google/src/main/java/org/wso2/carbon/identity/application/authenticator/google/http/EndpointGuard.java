@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.http;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guards the calls to a Google endpoint with a concurrency limit (bulkhead) and a {@link CircuitBreaker}, so that a
+ * slow or failing endpoint cannot hold more than a bounded number of login threads. Both are opt-in; a guard with
+ * neither enabled only counts the calls in progress.
+ */
+public class EndpointGuard {
+
+    private final String endpoint;
+    private final CircuitBreakerConfig config;
+    // Null when the concurrency limit is disabled.
+    private final Semaphore concurrentCallPermits;
+    private final AtomicInteger concurrentCalls = new AtomicInteger();
+    private final CircuitBreaker circuitBreaker;
+    private final LongAdder bulkheadRejectedCount = new LongAdder();
+
+    public EndpointGuard(String endpoint, CircuitBreakerConfig config) {
+
+        this.endpoint = endpoint;
+        this.config = config;
+        this.concurrentCallPermits = config.isBulkheadEnabled() ? new Semaphore(config.getMaxConcurrentCalls()) : null;
+        this.circuitBreaker = config.isCircuitBreakerEnabled() ? new CircuitBreaker(endpoint, config) : null;
+    }
+
+    /**
+     * Acquire a permit to call the endpoint. Every acquired permit must be released with
+     * {@link #release(long, boolean)}.
+     *
+     * @throws EndpointRejectedException If the endpoint has too many calls in progress or its breaker is open.
+     */
+    public void acquire() throws EndpointRejectedException {
+
+        if (concurrentCallPermits != null && !acquirePermit()) {
+            bulkheadRejectedCount.increment();
+            throw new EndpointRejectedException(endpoint, "the limit of " + config.getMaxConcurrentCalls() +
+                    " concurrent calls is reached");
+        }
+        if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+            if (concurrentCallPermits != null) {
+                concurrentCallPermits.release();
+            }
+            throw new EndpointRejectedException(endpoint, "the circuit breaker is open");
+        }
+        concurrentCalls.incrementAndGet();
+    }
+
+    /**
+     * Release a permit acquired with {@link #acquire()}.
+     *
+     * @param startTime Start time of the call from {@link System#nanoTime()}.
+     * @param success   Whether the endpoint responded without a server side error.
+     */
+    public void release(long startTime, boolean success) {
+
+        try {
+            if (circuitBreaker != null) {
+                circuitBreaker.onResult(System.nanoTime() - startTime, success);
+            }
+        } finally {
+            concurrentCalls.decrementAndGet();
+            if (concurrentCallPermits != null) {
+                concurrentCallPermits.release();
+            }
+        }
+    }
+
+    public String getEndpoint() {
+
+        return endpoint;
+    }
+
+    public CircuitBreakerConfig getConfig() {
+
+        return config;
+    }
+
+    /**
+     * Get the circuit breaker of the endpoint.
+     *
+     * @return The circuit breaker, or null if it is disabled.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+
+        return circuitBreaker;
+    }
+
+    public int getConcurrentCalls() {
+
+        return concurrentCalls.get();
+    }
+
+    private boolean acquirePermit() {
+
+        try {
+            return config.getMaxConcurrentCallsWait() > 0 ?
+                    concurrentCallPermits.tryAcquire(config.getMaxConcurrentCallsWait(), TimeUnit.MILLISECONDS) :
+                    concurrentCallPermits.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public long getBulkheadRejectedCount() {
+
+        return bulkheadRejectedCount.sum();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.http;
+
+import java.io.IOException;
+
+/**
+ * Signals that a call to a Google endpoint was not made, because the endpoint has too many calls in progress or its
+ * circuit breaker is open.
+ */
+public class EndpointRejectedException extends IOException {
+
+    private static final long serialVersionUID = 6151473602718834512L;
+
+    private final String endpoint;
+
+    public EndpointRejectedException(String endpoint, String message) {
+
+        super(message);
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+
+        return endpoint;
+    }
+}
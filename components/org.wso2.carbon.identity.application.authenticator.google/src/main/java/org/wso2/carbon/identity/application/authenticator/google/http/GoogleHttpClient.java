@@ -0,0 +1,575 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.http;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.apache.oltu.oauth2.client.HttpClient;
+import org.apache.oltu.oauth2.client.request.OAuthClientRequest;
+import org.apache.oltu.oauth2.client.response.OAuthClientResponse;
+import org.apache.oltu.oauth2.client.response.OAuthClientResponseFactory;
+import org.apache.oltu.oauth2.common.OAuth;
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleOAuth2AuthenticationConstant;
+import org.wso2.carbon.identity.application.authenticator.google.Utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide HTTP client used to call the Google token, user info and key endpoints. Connections are pooled and
+ * kept alive so that logins reuse the TLS connections to Google instead of doing a handshake per call.
+ * <p>
+ * Calls to each endpoint go through an {@link EndpointGuard}, which limits the concurrent calls and stops calling
+ * the endpoint for a while once most of the recent calls fail or are slow. Failed user info calls are retried by the
+ * {@link GoogleRetryPolicy}, while the token calls are never retried, neither by this client nor by the underlying
+ * HTTP client.
+ */
+public class GoogleHttpClient {
+
+    private static final Log LOG = LogFactory.getLog(GoogleHttpClient.class);
+    private static final GoogleHttpClient INSTANCE = new GoogleHttpClient();
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER = "Bearer ";
+
+    public static final String TOKEN_ENDPOINT = "Token";
+    public static final String USER_INFO_ENDPOINT = "UserInfo";
+
+    // Interval of checking whether the requests on a replaced connection pool completed.
+    private static final long RETIRED_POOL_CHECK_INTERVAL = 1000;
+
+    private volatile Map<String, String> appliedParameters;
+    private volatile PooledClient pooledClient;
+    private volatile Map<String, EndpointGuard> endpointGuards;
+    // Replaced pools which still have requests in progress. Guarded by this.
+    private final List<PooledClient> retiredClients = new ArrayList<>();
+    private ScheduledExecutorService retirementExecutor;
+    private ScheduledFuture<?> retirementCheck;
+
+    private GoogleHttpClient() {
+
+        pooledClient = new PooledClient(new HttpClientConfig(Collections.<String, String>emptyMap()));
+        endpointGuards = buildEndpointGuards(new CircuitBreakerConfig(Collections.<String, String>emptyMap()));
+    }
+
+    public static GoogleHttpClient getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Apply the HTTP client related authenticator parameters. The connection pool is only rebuilt when the
+     * configuration changed. The replaced pool is shut down once the requests in progress on it complete, or at the
+     * latest once they would have timed out.
+     *
+     * @param parameters Authenticator parameter map.
+     */
+    public void configure(Map<String, String> parameters) {
+
+        GoogleRetryPolicy.getInstance().configure(parameters);
+        if (parameters == null || parameters == appliedParameters) {
+            return;
+        }
+        synchronized (this) {
+            HttpClientConfig config = new HttpClientConfig(parameters);
+            PooledClient previous = pooledClient;
+            if (!previous.config.equals(config)) {
+                pooledClient = new PooledClient(config);
+                // Requests in progress complete on the previous pool. Its idle connections are closed right away.
+                previous.connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+                retire(previous);
+            }
+            CircuitBreakerConfig circuitBreakerConfig = new CircuitBreakerConfig(parameters);
+            if (!endpointGuards.get(TOKEN_ENDPOINT).getConfig().equals(circuitBreakerConfig)) {
+                endpointGuards = buildEndpointGuards(circuitBreakerConfig);
+            }
+            appliedParameters = parameters;
+        }
+    }
+
+    /**
+     * Get an OAuth client transport which sends the requests through the pooled connections.
+     *
+     * @return The OAuth client transport.
+     */
+    public HttpClient getOAuthHttpClient() {
+
+        return new OAuthHttpClient();
+    }
+
+    /**
+     * Send a GET request authorized with the given bearer token. Transient failures are retried.
+     *
+     * @param url         The URL.
+     * @param accessToken The bearer access token.
+     * @return The response body.
+     * @throws IOException When the request fails or the response status is not successful.
+     * @throws EndpointRejectedException When the call is rejected by the guard of the user info endpoint.
+     */
+    public String get(String url, String accessToken) throws IOException {
+
+        return GoogleRetryPolicy.getInstance().execute(USER_INFO_ENDPOINT, () -> getOnce(url, accessToken));
+    }
+
+    private String getOnce(String url, String accessToken) throws IOException {
+
+        HttpGet request = new HttpGet(url);
+        request.setHeader(AUTHORIZATION_HEADER, BEARER + accessToken);
+        EndpointGuard guard = getEndpointGuard(USER_INFO_ENDPOINT);
+        guard.acquire();
+        long startTime = System.nanoTime();
+        boolean available = false;
+        PooledClient client = acquireClient();
+        try (CloseableHttpResponse response = client.httpClient.execute(request)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            String body = readBody(response.getEntity());
+            available = isAvailable(statusCode);
+            if (statusCode < 200 || statusCode >= 300) {
+                throw new HttpResponseException(statusCode, "Server returned HTTP response code: " + statusCode +
+                        " for URL: " + url);
+            }
+            return body;
+        } finally {
+            client.release();
+            guard.release(startTime, available);
+        }
+    }
+
+    /**
+     * Send an unauthenticated GET request with the given timeouts and read the response with the given handler. The
+     * request does not go through the endpoint guards and is not retried.
+     *
+     * @param url             The URL.
+     * @param connectTimeout  Connect timeout in milliseconds.
+     * @param readTimeout     Read timeout in milliseconds.
+     * @param responseHandler Handler reading the response, and failing on unsuccessful response statuses.
+     * @param <T>             Type of the result read from the response.
+     * @return The result read from the response.
+     * @throws IOException When the request fails, or the handler fails to read the response.
+     */
+    public <T> T get(String url, int connectTimeout, int readTimeout, ResponseHandler<? extends T> responseHandler)
+            throws IOException {
+
+        PooledClient client = acquireClient();
+        try {
+            HttpGet request = new HttpGet(url);
+            request.setConfig(RequestConfig.copy(client.requestConfig)
+                    .setConnectTimeout(connectTimeout)
+                    .setSocketTimeout(readTimeout)
+                    .build());
+            return client.httpClient.execute(request, responseHandler);
+        } finally {
+            client.release();
+        }
+    }
+
+    /**
+     * Open a pooled connection to the host of the given URL with an unauthenticated GET request, so that the TLS
+     * handshake is done before the first login uses the host. The connection is kept alive in the pool. The request
+     * does not go through the endpoint guards, hence it does not affect the circuit breakers.
+     *
+     * @param url The URL.
+     * @return The response status code.
+     * @throws IOException When the connection cannot be opened.
+     */
+    public int openConnection(String url) throws IOException {
+
+        PooledClient client = acquireClient();
+        try (CloseableHttpResponse response = client.httpClient.execute(new HttpGet(url))) {
+            // Consume the body so that the connection is returned to the pool for reuse.
+            readBody(response.getEntity());
+            return response.getStatusLine().getStatusCode();
+        } finally {
+            client.release();
+        }
+    }
+
+    /**
+     * Get the guard of a Google endpoint.
+     *
+     * @param endpoint {@link #TOKEN_ENDPOINT} or {@link #USER_INFO_ENDPOINT}.
+     * @return The endpoint guard.
+     */
+    public EndpointGuard getEndpointGuard(String endpoint) {
+
+        return endpointGuards.get(endpoint);
+    }
+
+    /**
+     * Close all the pooled connections, including the ones of the replaced pools. A new empty pool is used if the
+     * client is used afterwards.
+     */
+    public synchronized void shutdown() {
+
+        PooledClient current = pooledClient;
+        pooledClient = new PooledClient(current.config);
+        current.close();
+        for (PooledClient retiredClient : retiredClients) {
+            retiredClient.close();
+        }
+        retiredClients.clear();
+        if (retirementExecutor != null) {
+            retirementExecutor.shutdownNow();
+            retirementExecutor = null;
+            retirementCheck = null;
+        }
+    }
+
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+
+        return pooledClient.connectionManager;
+    }
+
+    /**
+     * Keep a replaced pool until no connection is leased from it, and check it periodically.
+     *
+     * @param previous The replaced pool.
+     */
+    private void retire(PooledClient previous) {
+
+        previous.retiredAt = System.currentTimeMillis();
+        retiredClients.add(previous);
+        if (retirementExecutor == null) {
+            retirementExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "google-http-pool-retirement");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (retirementCheck == null) {
+            retirementCheck = retirementExecutor.scheduleWithFixedDelay(this::closeRetiredClients,
+                    RETIRED_POOL_CHECK_INTERVAL, RETIRED_POOL_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Get the current pool, counting a call in progress on it. A call which picked a pool just before it was
+     * replaced and closed moves to the pool replacing it.
+     *
+     * @return The pool to make the call on. The call must be released on it once completed.
+     */
+    private PooledClient acquireClient() {
+
+        while (true) {
+            PooledClient client = pooledClient;
+            if (client.tryAcquire()) {
+                return client;
+            }
+        }
+    }
+
+    /**
+     * Shut down the replaced pools which have no calls in progress, or whose calls would have timed out. The
+     * periodic check stops once all the replaced pools are shut down.
+     */
+    private synchronized void closeRetiredClients() {
+
+        long now = System.currentTimeMillis();
+        Iterator<PooledClient> iterator = retiredClients.iterator();
+        while (iterator.hasNext()) {
+            PooledClient retiredClient = iterator.next();
+            boolean quiescent = retiredClient.tryClose();
+            if (quiescent || now - retiredClient.retiredAt >= retiredClient.config.getMaxRequestTime()) {
+                if (!quiescent) {
+                    LOG.warn("Shutting down a replaced Google HTTP connection pool with " +
+                            retiredClient.calls.get() + " calls still in progress.");
+                } else if (LOG.isDebugEnabled()) {
+                    LOG.debug("Shutting down a replaced Google HTTP connection pool.");
+                }
+                retiredClient.close();
+                iterator.remove();
+            }
+        }
+        if (retiredClients.isEmpty() && retirementCheck != null) {
+            retirementCheck.cancel(false);
+            retirementCheck = null;
+        }
+    }
+
+    private static Map<String, EndpointGuard> buildEndpointGuards(CircuitBreakerConfig config) {
+
+        Map<String, EndpointGuard> guards = new HashMap<>();
+        guards.put(TOKEN_ENDPOINT, new EndpointGuard(TOKEN_ENDPOINT, config));
+        guards.put(USER_INFO_ENDPOINT, new EndpointGuard(USER_INFO_ENDPOINT, config));
+        return Collections.unmodifiableMap(guards);
+    }
+
+    /**
+     * Whether a response status shows that the endpoint is available. Client errors such as an invalid token are
+     * answered by a healthy endpoint, hence only server errors and throttling count as failures.
+     */
+    private static boolean isAvailable(int statusCode) {
+
+        return statusCode < 500 && statusCode != 429;
+    }
+
+    private static String readBody(HttpEntity entity) throws IOException {
+
+        return entity == null ? null : EntityUtils.toString(entity, StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * An HTTP client and its connection pool built for a configuration.
+     */
+    private static class PooledClient {
+
+        private final HttpClientConfig config;
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final RequestConfig requestConfig;
+        private final CloseableHttpClient httpClient;
+        // Number of calls in progress on the pool. Negative once the pool is closed, so that no call starts on it.
+        private final AtomicInteger calls = new AtomicInteger();
+        // Time at which the pool was replaced. Guarded by the enclosing client.
+        private long retiredAt;
+
+        PooledClient(HttpClientConfig config) {
+
+            this.config = config;
+            connectionManager = new PoolingHttpClientConnectionManager(config.keepAliveTime, TimeUnit.MILLISECONDS);
+            connectionManager.setMaxTotal(config.maxConnections);
+            connectionManager.setDefaultMaxPerRoute(config.maxConnectionsPerRoute);
+            requestConfig = RequestConfig.custom()
+                    .setConnectTimeout(config.connectTimeout)
+                    .setSocketTimeout(config.readTimeout)
+                    .setConnectionRequestTimeout(config.connectionRequestTimeout)
+                    .build();
+            httpClient = HttpClients.custom()
+                    .useSystemProperties()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .disableCookieManagement()
+                    .disableAutomaticRetries()
+                    .build();
+        }
+
+        boolean tryAcquire() {
+
+            return calls.getAndUpdate(count -> count < 0 ? count : count + 1) >= 0;
+        }
+
+        void release() {
+
+            calls.decrementAndGet();
+        }
+
+        /**
+         * Mark the pool closed if it has no calls in progress.
+         *
+         * @return Whether the pool was marked closed.
+         */
+        boolean tryClose() {
+
+            return calls.compareAndSet(0, -1);
+        }
+
+        void close() {
+
+            calls.set(-1);
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                LOG.warn("Error while closing the Google HTTP client.", e);
+            }
+            connectionManager.shutdown();
+        }
+    }
+
+    /**
+     * Connection pool and timeout configuration. Timeouts and the keep alive time are in milliseconds.
+     */
+    private static class HttpClientConfig {
+
+        private final int maxConnections;
+        private final int maxConnectionsPerRoute;
+        private final int connectTimeout;
+        private final int readTimeout;
+        private final int connectionRequestTimeout;
+        private final long keepAliveTime;
+
+        HttpClientConfig(Map<String, String> parameters) {
+
+            maxConnections = (int) Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.HTTP_MAX_CONNECTIONS,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_MAX_CONNECTIONS);
+            maxConnectionsPerRoute = (int) Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.HTTP_MAX_CONNECTIONS_PER_ROUTE,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_MAX_CONNECTIONS_PER_ROUTE);
+            connectTimeout = (int) Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.HTTP_CONNECT_TIMEOUT,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_CONNECT_TIMEOUT);
+            readTimeout = (int) Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.HTTP_READ_TIMEOUT,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_READ_TIMEOUT);
+            connectionRequestTimeout = (int) Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.HTTP_CONNECTION_REQUEST_TIMEOUT,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_CONNECTION_REQUEST_TIMEOUT);
+            keepAliveTime = Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.HTTP_KEEP_ALIVE_TIME,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_KEEP_ALIVE_TIME);
+        }
+
+        /**
+         * Get the time a request can take on a pool before one of its timeouts is reached, assuming the response
+         * does not trickle in.
+         */
+        long getMaxRequestTime() {
+
+            return (long) connectionRequestTimeout + connectTimeout + readTimeout;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            HttpClientConfig that = (HttpClientConfig) o;
+            return maxConnections == that.maxConnections
+                    && maxConnectionsPerRoute == that.maxConnectionsPerRoute
+                    && connectTimeout == that.connectTimeout
+                    && readTimeout == that.readTimeout
+                    && connectionRequestTimeout == that.connectionRequestTimeout
+                    && keepAliveTime == that.keepAliveTime;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(maxConnections, maxConnectionsPerRoute, connectTimeout, readTimeout,
+                    connectionRequestTimeout, keepAliveTime);
+        }
+    }
+
+    /**
+     * OAuth client transport over the pooled connections. It works like the oltu URLConnectionClient, except that
+     * the connections are reused. Shutting it down does not affect the shared pool.
+     */
+    private class OAuthHttpClient implements HttpClient {
+
+        @Override
+        public <T extends OAuthClientResponse> T execute(OAuthClientRequest request, Map<String, String> headers,
+                                                         String requestMethod, Class<T> responseClass)
+                throws OAuthSystemException, OAuthProblemException {
+
+            HttpRequestBase httpRequest = createRequest(request.getLocationUri(), requestMethod);
+            if (headers != null) {
+                for (Map.Entry<String, String> header : headers.entrySet()) {
+                    httpRequest.setHeader(header.getKey(), header.getValue());
+                }
+            }
+            if (request.getHeaders() != null) {
+                for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+                    httpRequest.setHeader(header.getKey(), header.getValue());
+                }
+            }
+            if (httpRequest instanceof HttpEntityEnclosingRequestBase && request.getBody() != null) {
+                try {
+                    ((HttpEntityEnclosingRequestBase) httpRequest).setEntity(new StringEntity(request.getBody(),
+                            StandardCharsets.UTF_8.name()));
+                } catch (IOException e) {
+                    throw new OAuthSystemException(e);
+                }
+            }
+
+            EndpointGuard guard = getEndpointGuard(TOKEN_ENDPOINT);
+            try {
+                guard.acquire();
+            } catch (EndpointRejectedException e) {
+                throw new OAuthSystemException(e);
+            }
+            long startTime = System.nanoTime();
+            boolean available = false;
+            String responseBody;
+            String contentType = null;
+            int responseCode;
+            PooledClient client = acquireClient();
+            try (CloseableHttpResponse response = client.httpClient.execute(httpRequest)) {
+                responseCode = response.getStatusLine().getStatusCode();
+                available = isAvailable(responseCode);
+                HttpEntity entity = response.getEntity();
+                responseBody = readBody(entity);
+                Header contentTypeHeader = entity == null ? null : entity.getContentType();
+                if (contentTypeHeader != null) {
+                    contentType = contentTypeHeader.getValue();
+                }
+            } catch (IOException e) {
+                throw new OAuthSystemException(e);
+            } finally {
+                client.release();
+                guard.release(startTime, available);
+            }
+            return OAuthClientResponseFactory.createCustomResponse(responseBody, contentType, responseCode,
+                    responseClass);
+        }
+
+        @Override
+        public void shutdown() {
+
+            // The connection pool is shared, hence it is only shut down when the bundle is deactivated.
+        }
+
+        private HttpRequestBase createRequest(String url, String requestMethod) {
+
+            if (OAuth.HttpMethod_POST.equals(requestMethod)) {
+                return new HttpPost(url);
+            }
+            if (OAuth.HttpMethod_PUT.equals(requestMethod)) {
+                return new HttpPut(url);
+            }
+            if (OAuth.HttpMethod_DELETE.equals(requestMethod)) {
+                return new HttpDelete(url);
+            }
+            return new HttpGet(url);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.http;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleOAuth2AuthenticationConstant;
+import org.wso2.carbon.identity.application.authenticator.google.Utils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide bounded executor running the outbound Google calls which overlap with the processing of a login on
+ * the request thread. When all the threads are busy and the queue is full, a task is rejected and the caller is
+ * expected to make the call itself.
+ * <p>
+ * Optionally the calls run on virtual threads, one per call, when the JDK supports them (JDK 21 and later). A
+ * virtual thread blocked on Google does not hold a platform thread, hence the number of calls in progress is only
+ * bounded by the sum of the configured threads and queue size. On older JDKs the bounded platform thread pool is
+ * used.
+ */
+public class GoogleOutboundExecutor {
+
+    private static final Log LOG = LogFactory.getLog(GoogleOutboundExecutor.class);
+    private static final GoogleOutboundExecutor INSTANCE = new GoogleOutboundExecutor();
+
+    private static final long KEEP_ALIVE_TIME = 60;
+    private static final String THREAD_NAME_PREFIX = "google-outbound-";
+
+    private volatile Map<String, String> appliedParameters;
+    private volatile ExecutorService executor;
+    // Limit of the calls in progress on virtual threads. Null when the platform thread pool is used.
+    private volatile Semaphore virtualThreadPermits;
+    private int threads;
+    private int queueSize;
+    private boolean virtualThreads;
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private GoogleOutboundExecutor() {
+
+    }
+
+    public static GoogleOutboundExecutor getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Apply the executor related authenticator parameters. The executor is created on first use, and replaced when
+     * its configuration changed. Tasks accepted by a replaced executor still complete.
+     *
+     * @param parameters Authenticator parameter map.
+     */
+    public void configure(Map<String, String> parameters) {
+
+        if (parameters == null || parameters == appliedParameters) {
+            return;
+        }
+        synchronized (this) {
+            int configuredThreads = (int) Math.max(1, Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.OUTBOUND_EXECUTOR_THREADS,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_OUTBOUND_EXECUTOR_THREADS));
+            int configuredQueueSize = (int) Math.max(1, Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.OUTBOUND_EXECUTOR_QUEUE_SIZE,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_OUTBOUND_EXECUTOR_QUEUE_SIZE));
+            boolean configuredVirtualThreads = Boolean.parseBoolean(parameters.get(
+                    GoogleOAuth2AuthenticationConstant.OUTBOUND_EXECUTOR_VIRTUAL_THREADS));
+            ExecutorService previous = executor;
+            if (previous == null || threads != configuredThreads || queueSize != configuredQueueSize ||
+                    virtualThreads != configuredVirtualThreads) {
+                threads = configuredThreads;
+                queueSize = configuredQueueSize;
+                virtualThreads = configuredVirtualThreads;
+                ExecutorService virtualThreadExecutor = virtualThreads ? createVirtualThreadExecutor() : null;
+                if (virtualThreadExecutor != null) {
+                    virtualThreadPermits = new Semaphore(threads + queueSize);
+                    executor = virtualThreadExecutor;
+                } else {
+                    virtualThreadPermits = null;
+                    executor = createExecutor(threads, queueSize);
+                }
+                if (previous != null) {
+                    previous.shutdown();
+                }
+            }
+            appliedParameters = parameters;
+        }
+    }
+
+    /**
+     * Submit a call to run on the executor.
+     *
+     * @param call The call.
+     * @param <T>  Type of the call result.
+     * @return The future result, or null if the executor is not configured or is saturated.
+     */
+    public <T> Future<T> submit(Callable<T> call) {
+
+        ExecutorService current = executor;
+        if (current == null) {
+            return null;
+        }
+        Semaphore permits = virtualThreadPermits;
+        try {
+            if (permits == null) {
+                return current.submit(call);
+            }
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("The limit of calls in progress is reached.");
+            }
+            try {
+                return current.submit(() -> {
+                    try {
+                        return call.call();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Google outbound executor is saturated. The call is made on the request thread.");
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Stop the executor. Tasks already accepted still complete.
+     */
+    public synchronized void shutdown() {
+
+        ExecutorService current = executor;
+        executor = null;
+        virtualThreadPermits = null;
+        appliedParameters = null;
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    /**
+     * Whether the calls run on virtual threads.
+     *
+     * @return True if the calls run on virtual threads.
+     */
+    public boolean isVirtualThreads() {
+
+        return virtualThreadPermits != null;
+    }
+
+    public int getActiveCount() {
+
+        ExecutorService current = executor;
+        Semaphore permits = virtualThreadPermits;
+        if (permits != null) {
+            return threads + queueSize - permits.availablePermits();
+        }
+        return current instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) current).getActiveCount() : 0;
+    }
+
+    public int getQueueSize() {
+
+        ExecutorService current = executor;
+        return current instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) current).getQueue().size() : 0;
+    }
+
+    public long getRejectedCount() {
+
+        return rejectedCount.sum();
+    }
+
+    private ThreadPoolExecutor createExecutor(int poolSize, int capacity) {
+
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_TIME,
+                TimeUnit.SECONDS, new ArrayBlockingQueue<>(capacity), threadFactory);
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    /**
+     * Create an executor starting a virtual thread per task. The virtual thread API is looked up reflectively, as
+     * the bundle is built for Java 8.
+     *
+     * @return The executor, or null if the JDK does not support virtual threads.
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder,
+                    THREAD_NAME_PREFIX + "virtual-", 1L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor",
+                    ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.warn("Virtual threads are not supported by the JDK. Outbound Google calls run on a bounded " +
+                    "platform thread pool.");
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Error while creating the virtual thread executor.", e);
+            }
+            return null;
+        }
+    }
+}
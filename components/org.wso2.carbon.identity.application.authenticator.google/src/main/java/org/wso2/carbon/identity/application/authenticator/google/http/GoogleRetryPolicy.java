@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.http;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.HttpResponseException;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleOAuth2AuthenticationConstant;
+import org.wso2.carbon.identity.application.authenticator.google.Utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide retry policy of the idempotent Google fetches, the user info and JWKS GET requests. The token
+ * exchange is not idempotent, hence it must never be executed through this policy.
+ * <p>
+ * A failed fetch is retried after a backoff with full jitter, so that the retries of concurrent logins do not hit
+ * Google at the same time. All the fetches share a retry budget: every fetch earns a fraction of a retry and every
+ * retry spends one, so while Google is failing the retries add at most the configured percentage to the outbound
+ * load.
+ */
+public class GoogleRetryPolicy {
+
+    private static final Log LOG = LogFactory.getLog(GoogleRetryPolicy.class);
+    private static final GoogleRetryPolicy INSTANCE = new GoogleRetryPolicy();
+
+    // The budget is kept in hundredths of a retry, so that a fetch can earn a percentage of a retry.
+    private static final long RETRY_COST = 100;
+
+    private volatile Map<String, String> appliedParameters;
+    private volatile RetryConfig config;
+    private final AtomicLong budget = new AtomicLong();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder budgetExhaustedCount = new LongAdder();
+
+    private GoogleRetryPolicy() {
+
+        config = new RetryConfig(Collections.<String, String>emptyMap());
+        budget.set(config.budgetBurst * RETRY_COST);
+    }
+
+    public static GoogleRetryPolicy getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Apply the retry related authenticator parameters. The retry budget is refilled when the configuration
+     * changed.
+     *
+     * @param parameters Authenticator parameter map.
+     */
+    public void configure(Map<String, String> parameters) {
+
+        if (parameters == null || parameters == appliedParameters) {
+            return;
+        }
+        synchronized (this) {
+            RetryConfig retryConfig = new RetryConfig(parameters);
+            if (!config.equals(retryConfig)) {
+                config = retryConfig;
+                budget.set(retryConfig.budgetBurst * RETRY_COST);
+            }
+            appliedParameters = parameters;
+        }
+    }
+
+    /**
+     * Execute an idempotent fetch, retrying it while it fails with a transient error and the retry budget allows.
+     *
+     * @param endpoint Name of the endpoint, used in the logs.
+     * @param fetch    The fetch.
+     * @param <T>      Type of the fetched resource.
+     * @return The fetched resource.
+     * @throws IOException The error of the last attempt.
+     */
+    public <T> T execute(String endpoint, Fetch<T> fetch) throws IOException {
+
+        RetryConfig current = config;
+        deposit(current);
+        int retries = 0;
+        while (true) {
+            try {
+                return fetch.fetch();
+            } catch (IOException e) {
+                if (retries >= current.maxRetries || !isRetryable(e)) {
+                    throw e;
+                }
+                if (!withdraw()) {
+                    budgetExhaustedCount.increment();
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Not retrying the failed call to the Google " + endpoint + " endpoint as the " +
+                                "retry budget is exhausted.");
+                    }
+                    throw e;
+                }
+                retries++;
+                retryCount.increment();
+                long backoff = getBackoff(current, retries);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Retrying the call to the Google " + endpoint + " endpoint in " + backoff + " ms. " +
+                            "Attempt " + (retries + 1) + " failed with : " + e.getMessage());
+                }
+                sleep(backoff, e);
+            }
+        }
+    }
+
+    /**
+     * Get the number of retries made.
+     *
+     * @return The retry count.
+     */
+    public long getRetryCount() {
+
+        return retryCount.sum();
+    }
+
+    /**
+     * Get the number of failed fetches not retried because the retry budget was exhausted.
+     *
+     * @return The budget exhausted count.
+     */
+    public long getBudgetExhaustedCount() {
+
+        return budgetExhaustedCount.sum();
+    }
+
+    /**
+     * Whether a failure is transient. Server errors, throttling and I/O errors such as connection resets and
+     * timeouts are retried. Client errors and calls rejected by an endpoint guard are not.
+     */
+    private static boolean isRetryable(IOException e) {
+
+        if (e instanceof EndpointRejectedException) {
+            return false;
+        }
+        if (e instanceof HttpResponseException) {
+            int statusCode = ((HttpResponseException) e).getStatusCode();
+            return statusCode >= 500 || statusCode == 429;
+        }
+        return true;
+    }
+
+    private void deposit(RetryConfig current) {
+
+        long maxBudget = current.budgetBurst * RETRY_COST;
+        while (true) {
+            long balance = budget.get();
+            if (balance >= maxBudget || budget.compareAndSet(balance, Math.min(maxBudget,
+                    balance + current.budgetRatio))) {
+                return;
+            }
+        }
+    }
+
+    private boolean withdraw() {
+
+        while (true) {
+            long balance = budget.get();
+            if (balance < RETRY_COST) {
+                return false;
+            }
+            if (budget.compareAndSet(balance, balance - RETRY_COST)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Exponential backoff with full jitter.
+     */
+    private static long getBackoff(RetryConfig current, int retry) {
+
+        long ceiling = current.backoff << Math.min(retry - 1, 20);
+        if (ceiling <= 0 || ceiling > current.maxBackoff) {
+            ceiling = current.maxBackoff;
+        }
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long backoff, IOException failure) throws IOException {
+
+        if (backoff <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting to retry.");
+            interrupted.addSuppressed(failure);
+            throw interrupted;
+        }
+    }
+
+    /**
+     * An idempotent fetch from a Google endpoint.
+     *
+     * @param <T> Type of the fetched resource.
+     */
+    @FunctionalInterface
+    public interface Fetch<T> {
+
+        T fetch() throws IOException;
+    }
+
+    /**
+     * Retry configuration. The backoff times are in milliseconds and the budget ratio is in percent.
+     */
+    private static class RetryConfig {
+
+        private final int maxRetries;
+        private final long backoff;
+        private final long maxBackoff;
+        private final long budgetRatio;
+        private final long budgetBurst;
+
+        RetryConfig(Map<String, String> parameters) {
+
+            maxRetries = (int) Math.max(0, Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.HTTP_MAX_RETRIES,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_MAX_RETRIES));
+            backoff = Utils.getLongParameter(parameters, GoogleOAuth2AuthenticationConstant.HTTP_RETRY_BACKOFF,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_RETRY_BACKOFF);
+            maxBackoff = Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.HTTP_RETRY_MAX_BACKOFF,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_RETRY_MAX_BACKOFF);
+            budgetRatio = Math.max(0, Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.HTTP_RETRY_BUDGET_RATIO,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_RETRY_BUDGET_RATIO));
+            budgetBurst = Math.max(0, Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.HTTP_RETRY_BUDGET_BURST,
+                    GoogleOAuth2AuthenticationConstant.DEFAULT_HTTP_RETRY_BUDGET_BURST));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RetryConfig that = (RetryConfig) o;
+            return maxRetries == that.maxRetries
+                    && backoff == that.backoff
+                    && maxBackoff == that.maxBackoff
+                    && budgetRatio == that.budgetRatio
+                    && budgetBurst == that.budgetBurst;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(maxRetries, backoff, maxBackoff, budgetRatio, budgetBurst);
+        }
+    }
+}
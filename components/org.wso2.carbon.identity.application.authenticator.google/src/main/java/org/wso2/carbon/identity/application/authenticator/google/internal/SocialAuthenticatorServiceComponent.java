@@ -22,7 +22,17 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.ComponentContext;
 import org.wso2.carbon.identity.application.authentication.framework.ApplicationAuthenticator;
+import org.wso2.carbon.identity.application.authentication.framework.config.builder.FileBasedConfigurationBuilder;
+import org.wso2.carbon.identity.application.authentication.framework.config.model.AuthenticatorConfig;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleAuthenticatorWarmUp;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleOAuth2AuthenticationConstant;
 import org.wso2.carbon.identity.application.authenticator.google.GoogleOAuth2Authenticator;
+import org.wso2.carbon.identity.application.authenticator.google.Utils;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleHttpClient;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleOutboundExecutor;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.GoogleJWKSetCache;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.GoogleJWTBatchValidator;
+import org.wso2.carbon.identity.application.authenticator.google.metrics.GoogleAuthenticatorMetricsMBean;
 
 /**
  * @scr.component name="identity.application.authenticator.google.component"
@@ -40,6 +50,18 @@ public class SocialAuthenticatorServiceComponent {
             ctxt.getBundleContext().registerService(ApplicationAuthenticator.class.getName(),
                     googleAuthenticator, null);
 
+            // Serve One Tap logins with the persisted Google keys while the latest keys are fetched.
+            AuthenticatorConfig authenticatorConfig = FileBasedConfigurationBuilder.getInstance()
+                    .getAuthenticatorBean(GoogleOAuth2AuthenticationConstant.GOOGLE_CONNECTOR_NAME);
+            if (authenticatorConfig != null) {
+                Utils.configureJWTValidation(authenticatorConfig.getParameterMap());
+            }
+            GoogleJWKSetCache.getInstance().loadSnapshots();
+            GoogleAuthenticatorMetricsMBean.register();
+            if (authenticatorConfig != null) {
+                GoogleAuthenticatorWarmUp.startIfEnabled(googleAuthenticator,
+                        authenticatorConfig.getParameterMap());
+            }
 
             if (log.isDebugEnabled()) {
                 log.debug("Google Social Authenticator bundle is activated.");
@@ -51,6 +73,12 @@ public class SocialAuthenticatorServiceComponent {
     }
 
     protected void deactivate(ComponentContext ctxt) {
+        GoogleAuthenticatorWarmUp.stop();
+        GoogleAuthenticatorMetricsMBean.unregister();
+        GoogleOutboundExecutor.getInstance().shutdown();
+        GoogleJWTBatchValidator.getInstance().shutdown();
+        GoogleJWKSetCache.getInstance().shutdown();
+        GoogleHttpClient.getInstance().shutdown();
         if (log.isDebugEnabled()) {
             log.debug("Google Social Authenticator bundle is deactivated.");
         }
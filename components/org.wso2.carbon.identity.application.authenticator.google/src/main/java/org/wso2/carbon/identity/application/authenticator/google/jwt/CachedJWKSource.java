@@ -0,0 +1,586 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authenticator.google.cache.BoundedCache;
+import org.wso2.carbon.identity.application.authenticator.google.metrics.GoogleAuthenticatorMetrics;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe JWK source which caches the JWK set of a remote endpoint for a configured time to live.
+ * The keys are refreshed in the background shortly before they expire. A request thread only goes to the remote
+ * endpoint when there are no usable keys or when a key ID which is not in the cached set is requested.
+ * <p>
+ * To keep unknown key IDs from turning logins into JWKS fetches, concurrent refreshes share a single fetch, the
+ * endpoint is not fetched more often than the configured minimum interval and recently missed key IDs are
+ * rejected without a fetch.
+ * <p>
+ * When a snapshot file is configured, each fetched JWK set is persisted to it. After a restart the persisted keys
+ * are served while they are younger than the configured maximum stale age, and a fetch is started in the background
+ * right away.
+ */
+public class CachedJWKSource implements JWKSource<SecurityContext> {
+
+    private static final Log LOG = LogFactory.getLog(CachedJWKSource.class);
+
+    private final JWKSourceConfig config;
+    private final ResourceRetriever resourceRetriever;
+    private final Executor refreshExecutor;
+    private final BoundedCache<String, Boolean> unknownKeyIds;
+    private final JWKSetSnapshotStore snapshotStore;
+    private final GoogleAuthenticatorMetrics metrics;
+    private final AtomicBoolean snapshotLoadAttempted = new AtomicBoolean(false);
+    private final Object snapshotLock = new Object();
+    private final AtomicBoolean backgroundRefreshPending = new AtomicBoolean(false);
+    private final AtomicReference<CompletableFuture<CachedJWKSet>> inFlightRefresh = new AtomicReference<>();
+    private volatile CachedJWKSet cachedJWKSet;
+    private volatile long lastFetchAttemptTime;
+
+    private final LongAdder fetchCount = new LongAdder();
+    private final LongAdder fetchFailureCount = new LongAdder();
+    private final LongAdder coalescedRefreshCount = new LongAdder();
+    private final LongAdder rateLimitedRefreshCount = new LongAdder();
+    private final LongAdder rateLimitedUnknownKeyIdCount = new LongAdder();
+
+    /**
+     * Create a cached JWK source.
+     *
+     * @param config            Configuration of the JWK source.
+     * @param resourceRetriever Retriever used to fetch the remote JWK set.
+     * @param refreshExecutor   Executor used to refresh the JWK set in the background.
+     */
+    public CachedJWKSource(JWKSourceConfig config, ResourceRetriever resourceRetriever, Executor refreshExecutor) {
+
+        this(config, resourceRetriever, refreshExecutor, GoogleAuthenticatorMetrics.getInstance());
+    }
+
+    /**
+     * Create a cached JWK source which records its key fetches and key lookups to the given metrics.
+     *
+     * @param config            Configuration of the JWK source.
+     * @param resourceRetriever Retriever used to fetch the remote JWK set.
+     * @param refreshExecutor   Executor used to refresh the JWK set in the background.
+     * @param metrics           Metrics of the JWK source, and of the validators using it.
+     */
+    public CachedJWKSource(JWKSourceConfig config, ResourceRetriever resourceRetriever, Executor refreshExecutor,
+                           GoogleAuthenticatorMetrics metrics) {
+
+        this.metrics = metrics;
+        this.config = config;
+        this.resourceRetriever = resourceRetriever;
+        this.refreshExecutor = refreshExecutor;
+        this.unknownKeyIds = new BoundedCache<>(config.getUnknownKeyIdCacheSize(),
+                config.getUnknownKeyIdCacheTTL());
+        this.snapshotStore = config.getSnapshotFile() == null ? null :
+                new JWKSetSnapshotStore(config.getSnapshotFile());
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+
+        CachedJWKSet current = getCachedJWKSet();
+        List<JWK> matches = jwkSelector.select(current.getJWKSet());
+        if (!matches.isEmpty()) {
+            return matches;
+        }
+        String unknownKeyId = getUnknownKeyId(jwkSelector, current.getJWKSet());
+        if (unknownKeyId == null || !shouldRefreshForUnknownKeyId(unknownKeyId)) {
+            return matches;
+        }
+        CachedJWKSet refreshed = refresh(current);
+        matches = jwkSelector.select(refreshed.getJWKSet());
+        if (matches.isEmpty()) {
+            rememberUnknownKeyId(unknownKeyId, current, refreshed);
+        }
+        return matches;
+    }
+
+    /**
+     * Get the cached JWK set, fetching it from the remote endpoint only when it is missing or expired.
+     *
+     * @return The current JWK set.
+     * @throws KeySourceException When the JWK set cannot be retrieved.
+     */
+    public JWKSet getJWKSet() throws KeySourceException {
+
+        return getCachedJWKSet().getJWKSet();
+    }
+
+    /**
+     * Get the signature verifiers for the key referenced by the given JWS header. A verifier is built once per key
+     * ID and algorithm, and it is discarded along with the JWK set when the keys are refreshed.
+     *
+     * @param header Header of the signed credential.
+     * @return The verifiers of the matching keys, or an empty list if there is no matching key.
+     * @throws KeySourceException When the JWK set cannot be retrieved or a key cannot be converted.
+     */
+    public List<JWSVerifier> getVerifiers(JWSHeader header) throws KeySourceException {
+
+        CachedJWKSet current = getCachedJWKSet();
+        String keyId = header.getKeyID();
+        if (keyId == null) {
+            return current.getVerifiers(header);
+        }
+        JWSVerifier verifier = current.getVerifier(header);
+        if (verifier != null) {
+            metrics.recordJWKSKeyCacheHit();
+        } else {
+            metrics.recordJWKSKeyCacheMiss();
+        }
+        if (verifier == null && current.getJWKSet().getKeyByKeyId(keyId) == null
+                && shouldRefreshForUnknownKeyId(keyId)) {
+            CachedJWKSet refreshed = refresh(current);
+            verifier = refreshed.getVerifier(header);
+            if (verifier == null) {
+                rememberUnknownKeyId(keyId, current, refreshed);
+            }
+        }
+        return verifier == null ? Collections.<JWSVerifier>emptyList() : Collections.singletonList(verifier);
+    }
+
+    /**
+     * Load the persisted JWK set if no JWK set is cached yet. The persisted keys are only used if they are younger
+     * than the configured maximum stale age, and a refresh is due as soon as they are loaded.
+     *
+     * @return Whether the persisted JWK set was loaded.
+     */
+    public boolean loadSnapshot() {
+
+        snapshotLoadAttempted.set(true);
+        if (snapshotStore == null || config.getMaxStaleAge() <= 0 || cachedJWKSet != null) {
+            return false;
+        }
+        JWKSetSnapshotStore.Snapshot snapshot = snapshotStore.load(config.getJWKSetURL());
+        if (snapshot == null) {
+            return false;
+        }
+        // The store does not return a fetch time in the future, but clamp it here too so that a snapshot can never
+        // be used for longer than the maximum stale age from now.
+        long now = System.currentTimeMillis();
+        long staleUntil = Math.min(snapshot.getFetchedAt(), now) + config.getMaxStaleAge();
+        if (staleUntil <= now) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Ignoring the JWK set snapshot of " + config.getJWKSetURL() + " fetched at " +
+                        snapshot.getFetchedAt() + " as it is older than the maximum stale age.");
+            }
+            return false;
+        }
+        synchronized (snapshotLock) {
+            if (cachedJWKSet != null) {
+                return false;
+            }
+            cachedJWKSet = new CachedJWKSet(snapshot.getJWKSet(), staleUntil, 0);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Loaded the JWK set snapshot of " + config.getJWKSetURL() + " fetched at " +
+                    snapshot.getFetchedAt());
+        }
+        return true;
+    }
+
+    /**
+     * Refresh the JWK set in the background unless a refresh is already in progress.
+     */
+    public void refreshInBackground() {
+
+        scheduleRefresh(cachedJWKSet);
+    }
+
+    public JWKSourceConfig getConfig() {
+
+        return config;
+    }
+
+    public GoogleAuthenticatorMetrics getMetrics() {
+
+        return metrics;
+    }
+
+    public long getFetchCount() {
+
+        return fetchCount.sum();
+    }
+
+    public long getFetchFailureCount() {
+
+        return fetchFailureCount.sum();
+    }
+
+    public long getCoalescedRefreshCount() {
+
+        return coalescedRefreshCount.sum();
+    }
+
+    public long getRateLimitedRefreshCount() {
+
+        return rateLimitedRefreshCount.sum();
+    }
+
+    public long getUnknownKeyIdRejectionCount() {
+
+        return unknownKeyIds.getHitCount();
+    }
+
+    /**
+     * Get the number of unknown key IDs which were rejected without a fetch, as the JWK set was fetched less than
+     * the minimum refresh interval before. Such key IDs are not remembered as unknown.
+     *
+     * @return The number of rate limited unknown key ID lookups.
+     */
+    public long getRateLimitedUnknownKeyIdCount() {
+
+        return rateLimitedUnknownKeyIdCount.sum();
+    }
+
+    private CachedJWKSet getCachedJWKSet() throws KeySourceException {
+
+        CachedJWKSet current = cachedJWKSet;
+        if (current == null && snapshotStore != null && !snapshotLoadAttempted.get() && loadSnapshot()) {
+            current = cachedJWKSet;
+        }
+        long now = System.currentTimeMillis();
+        if (current == null || current.isExpired(now)) {
+            return refresh(current);
+        }
+        if (current.isRefreshDue(now)) {
+            scheduleRefresh(current);
+        }
+        return current;
+    }
+
+    /**
+     * Remember a key ID which is not in the JWK set, but only if the set was fetched after the key ID was found
+     * missing. When the refresh was rate limited, the key may be a newly rotated one which the next fetch brings in.
+     *
+     * @param keyId     The key ID.
+     * @param observed  The JWK set the key ID was found missing in.
+     * @param refreshed The JWK set returned by the refresh.
+     */
+    private void rememberUnknownKeyId(String keyId, CachedJWKSet observed, CachedJWKSet refreshed) {
+
+        if (refreshed != observed) {
+            unknownKeyIds.put(keyId, Boolean.TRUE);
+            return;
+        }
+        rateLimitedUnknownKeyIdCount.increment();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Key ID " + keyId + " is not found in the JWK set of " + config.getJWKSetURL() +
+                    ", which was not refreshed as it was fetched recently.");
+        }
+    }
+
+    private boolean shouldRefreshForUnknownKeyId(String keyId) {
+
+        if (unknownKeyIds.get(keyId) != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Key ID " + keyId + " was recently not found in the JWK set of " +
+                        config.getJWKSetURL() + ". Skipping the refresh.");
+            }
+            return false;
+        }
+        // The key ID is not in the cached set. Google may have rotated the keys, hence try a refresh.
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Key ID " + keyId + " is not found in the cached JWK set of " + config.getJWKSetURL() +
+                    ". Refreshing.");
+        }
+        return true;
+    }
+
+    /**
+     * Refresh the JWK set unless it has already been replaced since it was observed. Concurrent callers share a
+     * single fetch, and fetches are not made more often than the configured minimum interval.
+     *
+     * @param observed The JWK set the caller found to be insufficient.
+     * @return The latest JWK set.
+     * @throws KeySourceException When there is no usable JWK set and it cannot be retrieved.
+     */
+    private CachedJWKSet refresh(CachedJWKSet observed) throws KeySourceException {
+
+        CompletableFuture<CachedJWKSet> inFlight = inFlightRefresh.get();
+        if (inFlight != null) {
+            coalescedRefreshCount.increment();
+            return await(inFlight);
+        }
+        CachedJWKSet current = cachedJWKSet;
+        if (current != null && current != observed) {
+            return current;
+        }
+        if (System.currentTimeMillis() - lastFetchAttemptTime < config.getMinRefreshInterval()) {
+            rateLimitedRefreshCount.increment();
+            if (current != null) {
+                return current;
+            }
+            throw new KeySourceException("JWK set of " + config.getJWKSetURL() + " is not available and it was " +
+                    "fetched less than " + config.getMinRefreshInterval() + " ms ago.");
+        }
+
+        CompletableFuture<CachedJWKSet> refresh = new CompletableFuture<>();
+        if (!inFlightRefresh.compareAndSet(null, refresh)) {
+            // Another thread started a refresh in between.
+            return refresh(observed);
+        }
+        try {
+            lastFetchAttemptTime = System.currentTimeMillis();
+            long startTime = System.nanoTime();
+            JWKSet jwkSet;
+            try {
+                jwkSet = fetchJWKSet();
+            } catch (KeySourceException | RuntimeException e) {
+                metrics.record(GoogleAuthenticatorMetrics.Phase.JWKS_FETCH, startTime, false);
+                throw e;
+            }
+            metrics.record(GoogleAuthenticatorMetrics.Phase.JWKS_FETCH, startTime, true);
+            long fetchedTime = System.currentTimeMillis();
+            CachedJWKSet fetched = new CachedJWKSet(jwkSet, fetchedTime + config.getTimeToLive(),
+                    fetchedTime + config.getTimeToLive() - config.getRefreshAheadTime());
+            cachedJWKSet = fetched;
+            fetchCount.increment();
+            refresh.complete(fetched);
+            saveSnapshot(jwkSet, fetchedTime);
+            return fetched;
+        } catch (KeySourceException | RuntimeException e) {
+            fetchFailureCount.increment();
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRefresh.set(null);
+        }
+    }
+
+    private CachedJWKSet await(CompletableFuture<CachedJWKSet> inFlight) throws KeySourceException {
+
+        try {
+            return inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KeySourceException("Interrupted while waiting for the JWK set of " +
+                    config.getJWKSetURL(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof KeySourceException) {
+                throw (KeySourceException) e.getCause();
+            }
+            throw new KeySourceException("Couldn't retrieve remote JWK set: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Save the snapshot of a fetched JWK set on the refresh executor. Failures are only logged, as the fetched JWK
+     * set is already in use.
+     *
+     * @param jwkSet    The fetched JWK set.
+     * @param fetchedAt Time in milliseconds the JWK set was fetched.
+     */
+    private void saveSnapshot(final JWKSet jwkSet, final long fetchedAt) {
+
+        if (snapshotStore == null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    snapshotStore.save(config.getJWKSetURL(), jwkSet, fetchedAt);
+                } catch (RuntimeException e) {
+                    LOG.warn("Error while saving the JWK set snapshot of " + config.getJWKSetURL(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Saving the JWK set snapshot of " + config.getJWKSetURL() + " was rejected.", e);
+            }
+        }
+    }
+
+    private void scheduleRefresh(final CachedJWKSet observed) {
+
+        if (!backgroundRefreshPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(observed);
+                } catch (KeySourceException e) {
+                    LOG.warn("Error while refreshing the JWK set from " + config.getJWKSetURL() +
+                            " in the background. Cached keys will be used until they expire.", e);
+                } finally {
+                    backgroundRefreshPending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            backgroundRefreshPending.set(false);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Background refresh of the JWK set from " + config.getJWKSetURL() + " was rejected.",
+                        e);
+            }
+        }
+    }
+
+    private JWKSet fetchJWKSet() throws KeySourceException {
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Fetching the JWK set from " + config.getJWKSetURL());
+        }
+        Resource resource;
+        try {
+            resource = resourceRetriever.retrieveResource(config.getJWKSetURL());
+        } catch (IOException e) {
+            throw new KeySourceException("Couldn't retrieve remote JWK set: " + e.getMessage(), e);
+        }
+        try {
+            return JWKSet.parse(resource.getContent());
+        } catch (ParseException e) {
+            throw new KeySourceException("Couldn't parse remote JWK set: " + e.getMessage(), e);
+        }
+    }
+
+    private static String getUnknownKeyId(JWKSelector jwkSelector, JWKSet jwkSet) {
+
+        Set<String> keyIds = jwkSelector.getMatcher().getKeyIDs();
+        if (keyIds == null) {
+            return null;
+        }
+        for (String keyId : keyIds) {
+            if (keyId != null && jwkSet.getKeyByKeyId(keyId) == null) {
+                return keyId;
+            }
+        }
+        return null;
+    }
+
+    private static JWSVerifier createVerifier(JWK jwk) throws KeySourceException {
+
+        try {
+            if (jwk instanceof RSAKey) {
+                return new RSASSAVerifier(((RSAKey) jwk).toRSAPublicKey());
+            }
+            if (jwk instanceof ECKey) {
+                return new ECDSAVerifier(((ECKey) jwk).toECPublicKey());
+            }
+        } catch (JOSEException e) {
+            throw new KeySourceException("Couldn't create a verifier for the key " + jwk.getKeyID() + ": " +
+                    e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * A fetched or persisted JWK set along with the times it expires and should be refreshed, and the verifiers
+     * built from its keys.
+     */
+    private static class CachedJWKSet {
+
+        private final JWKSet jwkSet;
+        private final long expiryTime;
+        private final long refreshTime;
+        private final ConcurrentMap<JWSAlgorithm, ConcurrentMap<String, JWSVerifier>> verifiers =
+                new ConcurrentHashMap<>();
+
+        CachedJWKSet(JWKSet jwkSet, long expiryTime, long refreshTime) {
+
+            this.jwkSet = jwkSet;
+            this.expiryTime = expiryTime;
+            this.refreshTime = refreshTime;
+        }
+
+        JWKSet getJWKSet() {
+
+            return jwkSet;
+        }
+
+        boolean isExpired(long now) {
+
+            return now >= expiryTime;
+        }
+
+        boolean isRefreshDue(long now) {
+
+            return now >= refreshTime;
+        }
+
+        JWSVerifier getVerifier(JWSHeader header) throws KeySourceException {
+
+            ConcurrentMap<String, JWSVerifier> algorithmVerifiers = verifiers.get(header.getAlgorithm());
+            if (algorithmVerifiers == null) {
+                algorithmVerifiers = verifiers.computeIfAbsent(header.getAlgorithm(),
+                        algorithm -> new ConcurrentHashMap<>());
+            }
+            JWSVerifier verifier = algorithmVerifiers.get(header.getKeyID());
+            if (verifier != null) {
+                return verifier;
+            }
+            JWK jwk = jwkSet.getKeyByKeyId(header.getKeyID());
+            if (jwk == null || !JWKMatcher.forJWSHeader(header).matches(jwk)) {
+                return null;
+            }
+            verifier = createVerifier(jwk);
+            if (verifier != null) {
+                algorithmVerifiers.putIfAbsent(header.getKeyID(), verifier);
+            }
+            return verifier;
+        }
+
+        List<JWSVerifier> getVerifiers(JWSHeader header) throws KeySourceException {
+
+            // Credentials without a key ID are rare, hence the verifiers of all matching keys are built on demand.
+            List<JWSVerifier> matchingVerifiers = new ArrayList<>();
+            for (JWK jwk : new JWKSelector(JWKMatcher.forJWSHeader(header)).select(jwkSet)) {
+                JWSVerifier verifier = createVerifier(jwk);
+                if (verifier != null) {
+                    matchingVerifiers.add(verifier);
+                }
+            }
+            return matchingVerifiers;
+        }
+    }
+}
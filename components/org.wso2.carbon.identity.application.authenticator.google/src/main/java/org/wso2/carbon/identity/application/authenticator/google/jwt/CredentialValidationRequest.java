@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.jwt;
+
+/**
+ * A Google One Tap credential to validate in a batch, with the audience and the nonce it is validated against.
+ */
+public class CredentialValidationRequest {
+
+    private final String credential;
+    private final String audience;
+    private final String nonce;
+    private final boolean internalSubmission;
+
+    /**
+     * Build a validation request.
+     *
+     * @param credential         The jwt token string.
+     * @param audience           Authenticator client ID to check validity.
+     * @param nonce              The nonce value used.
+     * @param internalSubmission Whether submitted as an internal form submission or submitted by Google.
+     */
+    public CredentialValidationRequest(String credential, String audience, String nonce,
+                                       boolean internalSubmission) {
+
+        this.credential = credential;
+        this.audience = audience;
+        this.nonce = nonce;
+        this.internalSubmission = internalSubmission;
+    }
+
+    public String getCredential() {
+
+        return credential;
+    }
+
+    public String getAudience() {
+
+        return audience;
+    }
+
+    public String getNonce() {
+
+        return nonce;
+    }
+
+    public boolean isInternalSubmission() {
+
+        return internalSubmission;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.jwt;
+
+import org.wso2.carbon.identity.application.authentication.framework.exception.AuthenticationFailedException;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleErrorConstants;
+
+/**
+ * Result of validating a Google One Tap credential in a batch. A rejected credential carries the
+ * {@link GoogleErrorConstants.ErrorMessages} code the single credential validation would have failed with.
+ */
+public class CredentialValidationResult {
+
+    private static final CredentialValidationResult VALID = new CredentialValidationResult(true, null, null);
+
+    private final boolean valid;
+    private final String errorCode;
+    private final String errorMessage;
+
+    private CredentialValidationResult(boolean valid, String errorCode, String errorMessage) {
+
+        this.valid = valid;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+
+    static CredentialValidationResult valid() {
+
+        return VALID;
+    }
+
+    static CredentialValidationResult invalid(String audience) {
+
+        return new CredentialValidationResult(false,
+                GoogleErrorConstants.ErrorMessages.TOKEN_VALIDATION_FAILED_ERROR.getCode(),
+                String.format(GoogleErrorConstants.ErrorMessages.TOKEN_VALIDATION_FAILED_ERROR.getMessage(),
+                        audience));
+    }
+
+    static CredentialValidationResult failed(AuthenticationFailedException e) {
+
+        return failed(e.getErrorCode(), e.getMessage());
+    }
+
+    static CredentialValidationResult failed(String errorCode, String errorMessage) {
+
+        return new CredentialValidationResult(false, errorCode, errorMessage);
+    }
+
+    /**
+     * Whether the credential is issued by Google to the audience and its signature is verified.
+     *
+     * @return Whether the credential is valid.
+     */
+    public boolean isValid() {
+
+        return valid;
+    }
+
+    /**
+     * Get the error code of a rejected credential.
+     *
+     * @return The error code, or null if the credential is valid.
+     */
+    public String getErrorCode() {
+
+        return errorCode;
+    }
+
+    /**
+     * Get the error message of a rejected credential.
+     *
+     * @return The error message, or null if the credential is valid.
+     */
+    public String getErrorMessage() {
+
+        return errorMessage;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleOAuth2AuthenticationConstant;
+import org.wso2.carbon.identity.application.authenticator.google.Utils;
+import org.wso2.carbon.utils.CarbonUtils;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide holder of the cached JWK sources used to verify Google One Tap credentials, one per signing
+ * algorithm endpoint.
+ */
+public class GoogleJWKSetCache {
+
+    private static final Log LOG = LogFactory.getLog(GoogleJWKSetCache.class);
+    private static final GoogleJWKSetCache INSTANCE = new GoogleJWKSetCache();
+
+    // Same limits as the nimbus RemoteJWKSet defaults.
+    private static final int HTTP_CONNECT_TIMEOUT = 500;
+    private static final int HTTP_READ_TIMEOUT = 500;
+    private static final int HTTP_SIZE_LIMIT = 50 * 1024;
+
+    // Null once shut down, until the cache is used again.
+    private volatile ExecutorService refreshExecutor;
+    private volatile Map<String, String> appliedParameters;
+    private volatile Map<JWSAlgorithm, CachedJWKSource> jwkSources;
+
+    private GoogleJWKSetCache() {
+
+        start();
+    }
+
+    public static GoogleJWKSetCache getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Apply the JWKS related authenticator parameters. Cached keys are retained for the endpoints whose
+     * configuration did not change.
+     *
+     * @param parameters Authenticator parameter map.
+     */
+    public void configure(Map<String, String> parameters) {
+
+        if (parameters == null || parameters == appliedParameters) {
+            return;
+        }
+        synchronized (this) {
+            if (refreshExecutor == null) {
+                start();
+            }
+            if (!parameters.equals(appliedParameters)) {
+                jwkSources = buildJWKSources(parameters, jwkSources);
+            }
+            appliedParameters = parameters;
+        }
+    }
+
+    /**
+     * Get the cached JWK source for the given signing algorithm.
+     *
+     * @param algorithm JWS algorithm of the credential.
+     * @return The JWK source, or null if the algorithm is not supported.
+     */
+    public CachedJWKSource getJWKSource(JWSAlgorithm algorithm) {
+
+        if (refreshExecutor == null) {
+            synchronized (this) {
+                if (refreshExecutor == null) {
+                    start();
+                }
+            }
+        }
+        return jwkSources.get(algorithm);
+    }
+
+    /**
+     * Load the persisted JWK sets so that credentials can be verified without waiting for a fetch, and refresh
+     * them in the background.
+     */
+    public void loadSnapshots() {
+
+        for (CachedJWKSource jwkSource : jwkSources.values()) {
+            jwkSource.loadSnapshot();
+            jwkSource.refreshInBackground();
+        }
+    }
+
+    /**
+     * Stop the background refreshes and drop the cached keys, so that no thread of the bundle outlives it. The
+     * cache starts again with the default configuration if it is used afterwards.
+     */
+    public synchronized void shutdown() {
+
+        ExecutorService executor = refreshExecutor;
+        refreshExecutor = null;
+        appliedParameters = null;
+        jwkSources = Collections.emptyMap();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void start() {
+
+        refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "google-jwks-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        jwkSources = buildJWKSources(Collections.<String, String>emptyMap(), Collections.emptyMap());
+    }
+
+    private Map<JWSAlgorithm, CachedJWKSource> buildJWKSources(Map<String, String> parameters,
+                                                               Map<JWSAlgorithm, CachedJWKSource> existing) {
+
+        long timeToLive = TimeUnit.SECONDS.toMillis(Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.JWKS_CACHE_TTL,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_JWKS_CACHE_TTL));
+        long refreshAheadTime = TimeUnit.SECONDS.toMillis(Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.JWKS_REFRESH_AHEAD_TIME,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_JWKS_REFRESH_AHEAD_TIME));
+        long minRefreshInterval = TimeUnit.SECONDS.toMillis(Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.JWKS_MIN_REFRESH_INTERVAL,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_JWKS_MIN_REFRESH_INTERVAL));
+        int unknownKeyIdCacheSize = (int) Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.JWKS_UNKNOWN_KID_CACHE_SIZE,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_JWKS_UNKNOWN_KID_CACHE_SIZE);
+        long unknownKeyIdCacheTTL = TimeUnit.SECONDS.toMillis(Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.JWKS_UNKNOWN_KID_CACHE_TTL,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_JWKS_UNKNOWN_KID_CACHE_TTL));
+        long maxStaleAge = TimeUnit.SECONDS.toMillis(Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.JWKS_MAX_STALE_AGE,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_JWKS_MAX_STALE_AGE));
+        Path snapshotDirectory = getSnapshotDirectory(parameters);
+
+        Map<JWSAlgorithm, CachedJWKSource> sources = new HashMap<>();
+        sources.put(JWSAlgorithm.RS256, buildJWKSource(new JWKSourceConfig(getURL(parameters,
+                GoogleOAuth2AuthenticationConstant.GOOGLE_JWKS_RS256_ENDPOINT,
+                GoogleOAuth2AuthenticationConstant.GOOGLE_JWKS_RS256_URL), timeToLive, refreshAheadTime,
+                minRefreshInterval, unknownKeyIdCacheSize, unknownKeyIdCacheTTL,
+                getSnapshotFile(snapshotDirectory, JWSAlgorithm.RS256), maxStaleAge),
+                existing.get(JWSAlgorithm.RS256)));
+        sources.put(JWSAlgorithm.ES256, buildJWKSource(new JWKSourceConfig(getURL(parameters,
+                GoogleOAuth2AuthenticationConstant.GOOGLE_JWKS_ES256_ENDPOINT,
+                GoogleOAuth2AuthenticationConstant.GOOGLE_JWKS_ES256_URL), timeToLive, refreshAheadTime,
+                minRefreshInterval, unknownKeyIdCacheSize, unknownKeyIdCacheTTL,
+                getSnapshotFile(snapshotDirectory, JWSAlgorithm.ES256), maxStaleAge),
+                existing.get(JWSAlgorithm.ES256)));
+        return Collections.unmodifiableMap(sources);
+    }
+
+    private CachedJWKSource buildJWKSource(JWKSourceConfig config, CachedJWKSource existing) {
+
+        if (existing != null && existing.getConfig().equals(config)) {
+            return existing;
+        }
+        return new CachedJWKSource(config, new RetryingResourceRetriever(new PooledResourceRetriever(
+                HTTP_CONNECT_TIMEOUT, HTTP_READ_TIMEOUT, HTTP_SIZE_LIMIT)), refreshExecutor);
+    }
+
+    private static Path getSnapshotDirectory(Map<String, String> parameters) {
+
+        String configuredDirectory = parameters.get(GoogleOAuth2AuthenticationConstant.JWKS_SNAPSHOT_DIRECTORY);
+        if (StringUtils.isNotBlank(configuredDirectory)) {
+            return Paths.get(configuredDirectory.trim());
+        }
+        String carbonHome = CarbonUtils.getCarbonHome();
+        if (StringUtils.isBlank(carbonHome)) {
+            // Not running in a Carbon server, hence the JWK sets are not persisted.
+            return null;
+        }
+        return Paths.get(carbonHome, GoogleOAuth2AuthenticationConstant.DEFAULT_JWKS_SNAPSHOT_DIRECTORY);
+    }
+
+    private static Path getSnapshotFile(Path snapshotDirectory, JWSAlgorithm algorithm) {
+
+        return snapshotDirectory == null ? null : snapshotDirectory.resolve("jwks-" + algorithm.getName() + ".json");
+    }
+
+    private static URL getURL(Map<String, String> parameters, String parameterName, String defaultURL) {
+
+        String configuredURL = parameters.get(parameterName);
+        if (StringUtils.isNotBlank(configuredURL)) {
+            try {
+                return new URL(configuredURL.trim());
+            } catch (MalformedURLException e) {
+                LOG.error("Invalid URL configured for " + parameterName + " : " + configuredURL +
+                        ". Using the default URL " + defaultURL, e);
+            }
+        }
+        try {
+            return new URL(defaultURL);
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("Invalid default JWKS URL : " + defaultURL, e);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.jwt;
+
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authentication.framework.exception.AuthenticationFailedException;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleErrorConstants;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleOAuth2AuthenticationConstant;
+import org.wso2.carbon.identity.application.authenticator.google.Utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Validates batches of Google One Tap credentials in parallel on a dedicated fork-join pool, for layers which
+ * pre-validate bursts of One Tap submissions.
+ * <p>
+ * A batch is validated in three steps. The credentials are parsed and their payloads checked in parallel, so that
+ * malformed, expired or foreign credentials are rejected without a key lookup. The keys are then resolved once per
+ * algorithm and key ID for the whole batch, hence a batch triggers at most one JWKS fetch per unknown key. Finally
+ * the signatures are verified in parallel with the resolved keys. Each credential gets the same result and error
+ * code as {@link Utils#validateGoogleJWT} would give.
+ */
+public class GoogleJWTBatchValidator {
+
+    private static final Log LOG = LogFactory.getLog(GoogleJWTBatchValidator.class);
+    private static final GoogleJWTBatchValidator INSTANCE = new GoogleJWTBatchValidator();
+
+    // Number of tasks per pool thread a batch is split into, to balance the load between the threads.
+    private static final int TASKS_PER_THREAD = 4;
+
+    private volatile Map<String, String> appliedParameters;
+    private volatile ForkJoinPool pool;
+    private int parallelism;
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    private GoogleJWTBatchValidator() {
+
+    }
+
+    public static GoogleJWTBatchValidator getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Apply the batch validation related authenticator parameters. The pool is created on first use, and replaced
+     * when its parallelism changed. Batches in progress on a replaced pool continue on the new pool.
+     *
+     * @param parameters Authenticator parameter map.
+     */
+    public void configure(Map<String, String> parameters) {
+
+        if (parameters == null || parameters == appliedParameters) {
+            return;
+        }
+        synchronized (this) {
+            int configuredParallelism = (int) Utils.getLongParameter(parameters,
+                    GoogleOAuth2AuthenticationConstant.JWT_BATCH_VALIDATION_PARALLELISM,
+                    Runtime.getRuntime().availableProcessors());
+            configuredParallelism = Math.max(1, configuredParallelism);
+            ForkJoinPool previous = pool;
+            if (previous == null || parallelism != configuredParallelism) {
+                parallelism = configuredParallelism;
+                pool = new ForkJoinPool(parallelism, this::newWorkerThread, null, false);
+                if (previous != null) {
+                    previous.shutdown();
+                }
+            }
+            appliedParameters = parameters;
+        }
+    }
+
+    /**
+     * Validate a batch of credentials.
+     *
+     * @param requests The credentials with their audiences and nonces.
+     * @return The result of each credential, in the order of the requests.
+     */
+    public List<CredentialValidationResult> validate(List<CredentialValidationRequest> requests) {
+
+        if (requests == null || requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int size = requests.size();
+        int granularity = Math.max(1, size / (getPool().getParallelism() * TASKS_PER_THREAD));
+        CredentialValidationResult[] results = new CredentialValidationResult[size];
+        BatchItem[] items = new BatchItem[size];
+
+        invoke(size, granularity, i -> items[i] = checkPayload(requests.get(i), results, i));
+
+        Map<String, ResolvedKeys> keys = new HashMap<>();
+        for (BatchItem item : items) {
+            if (item != null) {
+                item.verifiers = keys.computeIfAbsent(item.getKeyReference(), keyReference -> resolveKeys(item));
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Resolved " + keys.size() + " key(s) to validate a batch of " + size + " credential(s).");
+        }
+
+        invoke(size, granularity, i -> {
+            if (items[i] != null) {
+                results[i] = verifySignature(items[i]);
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Stop the pool. Batches in progress still complete.
+     */
+    public synchronized void shutdown() {
+
+        ForkJoinPool current = pool;
+        pool = null;
+        appliedParameters = null;
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    /**
+     * Run a step of a batch on the pool. A pool replaced while the batch is in progress is shut down and rejects the
+     * step, in which case the step runs on the pool replacing it.
+     *
+     * @param size        Number of credentials in the batch.
+     * @param granularity Maximum number of credentials handled by a single task.
+     * @param action      The step to run for each credential index.
+     */
+    private void invoke(int size, int granularity, IntConsumer action) {
+
+        ForkJoinPool current = getPool();
+        while (true) {
+            try {
+                current.invoke(new BatchTask(0, size, granularity, action));
+                return;
+            } catch (RejectedExecutionException e) {
+                ForkJoinPool latest = getPool();
+                if (latest == current) {
+                    throw e;
+                }
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Batch validation pool was replaced. Continuing the batch on the new pool.");
+                }
+                current = latest;
+            }
+        }
+    }
+
+    private ForkJoinPool getPool() {
+
+        ForkJoinPool current = pool;
+        if (current == null) {
+            configure(Collections.<String, String>emptyMap());
+            current = pool;
+        }
+        return current;
+    }
+
+    /**
+     * Parse a credential and check its payload. Sets the result of a rejected credential.
+     *
+     * @return The credential to verify the signature of, or null if it is rejected.
+     */
+    private static BatchItem checkPayload(CredentialValidationRequest request, CredentialValidationResult[] results,
+                                          int index) {
+
+        try {
+            if (request == null || StringUtils.isBlank(request.getCredential())) {
+                results[index] = CredentialValidationResult.failed(GoogleErrorConstants.ErrorMessages
+                        .JWT_PARSE_ERROR.getCode(), GoogleErrorConstants.ErrorMessages.JWT_PARSE_ERROR.getMessage());
+                return null;
+            }
+            SignedJWT signedJWT = Utils.parseGoogleJWT(request.getCredential());
+            GoogleJWTValidator validator = GoogleJWTValidator.getInstance(signedJWT.getHeader().getAlgorithm(),
+                    request.getAudience());
+            if (validator == null) {
+                results[index] = CredentialValidationResult.failed(GoogleErrorConstants.ErrorMessages
+                        .INVALID_JWK_SOURCE_URL.getCode(), String.format(GoogleErrorConstants.ErrorMessages
+                        .INVALID_JWK_SOURCE_URL.getMessage(), StringUtils.EMPTY));
+                return null;
+            }
+            if (!validator.validateClaims(signedJWT, request.getNonce(), request.isInternalSubmission())) {
+                results[index] = CredentialValidationResult.invalid(request.getAudience());
+                return null;
+            }
+            return new BatchItem(signedJWT, validator);
+        } catch (AuthenticationFailedException e) {
+            results[index] = CredentialValidationResult.failed(e);
+        } catch (RuntimeException e) {
+            results[index] = CredentialValidationResult.failed(GoogleErrorConstants.ErrorMessages
+                    .JWT_PROCESS_ERROR.getCode(), e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Resolve the verifiers of the key referenced by a credential.
+     */
+    private static ResolvedKeys resolveKeys(BatchItem item) {
+
+        try {
+            return new ResolvedKeys(item.validator.getVerifiers(item.signedJWT.getHeader()), null);
+        } catch (AuthenticationFailedException e) {
+            return new ResolvedKeys(null, e);
+        }
+    }
+
+    private static CredentialValidationResult verifySignature(BatchItem item) {
+
+        if (item.verifiers.error != null) {
+            return CredentialValidationResult.failed(item.verifiers.error);
+        }
+        try {
+            item.validator.verifySignature(item.signedJWT, item.verifiers.verifiers);
+            return CredentialValidationResult.valid();
+        } catch (AuthenticationFailedException e) {
+            return CredentialValidationResult.failed(e);
+        } catch (RuntimeException e) {
+            return CredentialValidationResult.failed(GoogleErrorConstants.ErrorMessages.JWT_PROCESS_ERROR.getCode(),
+                    e.getMessage());
+        }
+    }
+
+    private ForkJoinWorkerThread newWorkerThread(ForkJoinPool forkJoinPool) {
+
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+        thread.setName("google-jwt-validator-" + threadCount.incrementAndGet());
+        return thread;
+    }
+
+    /**
+     * A credential whose payload is checked, waiting for its signature to be verified.
+     */
+    private static class BatchItem {
+
+        private final SignedJWT signedJWT;
+        private final GoogleJWTValidator validator;
+        private ResolvedKeys verifiers;
+
+        BatchItem(SignedJWT signedJWT, GoogleJWTValidator validator) {
+
+            this.signedJWT = signedJWT;
+            this.validator = validator;
+        }
+
+        String getKeyReference() {
+
+            JWSHeader header = signedJWT.getHeader();
+            return header.getAlgorithm().getName() + ":" + header.getKeyID();
+        }
+    }
+
+    /**
+     * The verifiers of a key referenced by the credentials of a batch, or the error resolving them.
+     */
+    private static class ResolvedKeys {
+
+        private final List<JWSVerifier> verifiers;
+        private final AuthenticationFailedException error;
+
+        ResolvedKeys(List<JWSVerifier> verifiers, AuthenticationFailedException error) {
+
+            this.verifiers = verifiers;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Runs an action for each index of a range, splitting the range between the pool threads.
+     */
+    private static class BatchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 4012731962810573519L;
+
+        private final int from;
+        private final int to;
+        private final int granularity;
+        private final transient IntConsumer action;
+
+        BatchTask(int from, int to, int granularity, IntConsumer action) {
+
+            this.from = from;
+            this.to = to;
+            this.granularity = granularity;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from <= granularity) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(from, middle, granularity, action),
+                    new BatchTask(middle, to, granularity, action));
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.identity.application.authentication.framework.exception.AuthenticationFailedException;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleErrorConstants;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleOAuth2AuthenticationConstant;
+import org.wso2.carbon.identity.application.authenticator.google.Utils;
+import org.wso2.carbon.identity.application.authenticator.google.metrics.GoogleAuthenticatorMetrics;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates Google One Tap credentials signed with a given algorithm for a given audience.
+ * A validator is immutable once built and is shared across threads.
+ * <p>
+ * The checks which only need the unverified payload run first, so that malformed, expired or foreign credentials
+ * are rejected without a public key operation or a JWKS fetch. The signature is verified last and a credential is
+ * trusted only if it passes that verification.
+ */
+public class GoogleJWTValidator {
+
+    private static final List<String> ISSUER = Arrays.asList("https://accounts.google.com", "accounts.google.com");
+    private static final Map<JWSAlgorithm, ConcurrentMap<String, GoogleJWTValidator>> VALIDATORS = new HashMap<>();
+    private static volatile long maxClockSkew =
+            TimeUnit.SECONDS.toMillis(GoogleOAuth2AuthenticationConstant.DEFAULT_JWT_CLOCK_SKEW);
+    private static volatile Map<String, String> appliedParameters;
+
+    static {
+        VALIDATORS.put(JWSAlgorithm.RS256, new ConcurrentHashMap<>());
+        VALIDATORS.put(JWSAlgorithm.ES256, new ConcurrentHashMap<>());
+    }
+
+    private final JWSAlgorithm algorithm;
+    private final String audience;
+    private final CachedJWKSource jwkSource;
+
+    /**
+     * Build a validator.
+     *
+     * @param algorithm Expected signing algorithm of the credentials.
+     * @param audience  Authenticator client ID the credentials should be issued to.
+     * @param jwkSource Source of the keys used to verify the signature.
+     */
+    public GoogleJWTValidator(JWSAlgorithm algorithm, String audience, CachedJWKSource jwkSource) {
+
+        this.algorithm = algorithm;
+        this.audience = audience;
+        this.jwkSource = jwkSource;
+    }
+
+    /**
+     * Get the shared validator for the given algorithm and audience.
+     *
+     * @param algorithm Signing algorithm in the credential header.
+     * @param audience  Authenticator client ID.
+     * @return The validator, or null if there is no JWK source for the algorithm.
+     */
+    public static GoogleJWTValidator getInstance(JWSAlgorithm algorithm, String audience) {
+
+        CachedJWKSource jwkSource = GoogleJWKSetCache.getInstance().getJWKSource(algorithm);
+        if (jwkSource == null) {
+            return null;
+        }
+        ConcurrentMap<String, GoogleJWTValidator> validators = VALIDATORS.get(algorithm);
+        if (validators == null || audience == null) {
+            return new GoogleJWTValidator(algorithm, audience, jwkSource);
+        }
+        GoogleJWTValidator validator = validators.get(audience);
+        // Rebuild the validator if the JWK source was replaced due to a configuration change.
+        if (validator == null || validator.jwkSource != jwkSource) {
+            validator = new GoogleJWTValidator(algorithm, audience, jwkSource);
+            validators.put(audience, validator);
+        }
+        return validator;
+    }
+
+    /**
+     * Apply the credential validation related authenticator parameters.
+     *
+     * @param parameters Authenticator parameter map.
+     */
+    public static void configure(Map<String, String> parameters) {
+
+        if (parameters == null || parameters == appliedParameters) {
+            return;
+        }
+        appliedParameters = parameters;
+        maxClockSkew = TimeUnit.SECONDS.toMillis(Utils.getLongParameter(parameters,
+                GoogleOAuth2AuthenticationConstant.JWT_CLOCK_SKEW,
+                GoogleOAuth2AuthenticationConstant.DEFAULT_JWT_CLOCK_SKEW));
+    }
+
+    /**
+     * Validate a parsed credential.
+     *
+     * @param signedJWT          The parsed credential.
+     * @param nonce              The nonce value used.
+     * @param internalSubmission Whether submitted as an internal form submission or submitted by Google.
+     * @return Whether the credential is issued by Google to the audience of this validator.
+     * @throws AuthenticationFailedException When the credential is expired, cannot be verified or the nonce does
+     *                                       not match.
+     */
+    public boolean validate(SignedJWT signedJWT, String nonce, boolean internalSubmission)
+            throws AuthenticationFailedException {
+
+        if (!validateClaims(signedJWT, nonce, internalSubmission)) {
+            return false;
+        }
+        verifySignature(signedJWT, getVerifiers(signedJWT.getHeader()));
+        return true;
+    }
+
+    /**
+     * Run the checks which only need the unverified payload of a credential.
+     *
+     * @param signedJWT          The parsed credential.
+     * @param nonce              The nonce value used.
+     * @param internalSubmission Whether submitted as an internal form submission or submitted by Google.
+     * @return Whether the credential is issued by Google to the audience of this validator.
+     * @throws AuthenticationFailedException When the credential is expired or the nonce does not match.
+     */
+    boolean validateClaims(SignedJWT signedJWT, String nonce, boolean internalSubmission)
+            throws AuthenticationFailedException {
+
+        if (!algorithm.equals(signedJWT.getHeader().getAlgorithm())) {
+            throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages.JWT_PROCESS_ERROR.getCode(),
+                    "Signed JWT rejected: Another algorithm expected");
+        }
+
+        JWTClaimsSet claimsSet;
+        try {
+            claimsSet = signedJWT.getJWTClaimsSet();
+        } catch (ParseException e) {
+            throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages
+                    .JWT_PROCESS_ERROR.getCode(), e.getMessage());
+        }
+        if (claimsSet == null || claimsSet.getClaims().isEmpty()) {
+            return false;
+        }
+
+        validateTimestamps(claimsSet);
+
+        // Verifying the issuers and audiences.
+        if (!ISSUER.contains(claimsSet.getIssuer()) || !claimsSet.getAudience().contains(audience)) {
+            return false;
+        }
+        if (internalSubmission) {
+            String nonceFromGoogle = String.valueOf(claimsSet.getClaim(Utils.NONCE));
+            if (StringUtils.isEmpty(nonce) || !nonce.equals(nonceFromGoogle)) {
+                throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages
+                        .JWT_NONCE_ERROR.getCode(),
+                        GoogleErrorConstants.ErrorMessages.JWT_NONCE_ERROR.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the cached verifiers of the key referenced by a credential header, fetching the keys if needed.
+     *
+     * @param header Header of the credential.
+     * @return The verifiers of the matching keys.
+     * @throws AuthenticationFailedException When the keys cannot be retrieved or there is no matching key.
+     */
+    List<JWSVerifier> getVerifiers(JWSHeader header) throws AuthenticationFailedException {
+
+        List<JWSVerifier> verifiers;
+        try {
+            verifiers = jwkSource.getVerifiers(header);
+        } catch (JOSEException e) {
+            throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages.JWT_PROCESS_ERROR.getCode(),
+                    e.getMessage());
+        }
+        if (verifiers.isEmpty()) {
+            throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages.JWT_PROCESS_ERROR
+                    .getCode(), "Signed JWT rejected: No matching key(s) found");
+        }
+        return verifiers;
+    }
+
+    public JWSAlgorithm getAlgorithm() {
+
+        return algorithm;
+    }
+
+    public String getAudience() {
+
+        return audience;
+    }
+
+    /**
+     * Validate the expiry and not before times allowing the configured clock skew.
+     */
+    private static void validateTimestamps(JWTClaimsSet claimsSet) throws AuthenticationFailedException {
+
+        long now = System.currentTimeMillis();
+        long clockSkew = maxClockSkew;
+        Date expirationTime = claimsSet.getExpirationTime();
+        if (expirationTime != null && expirationTime.getTime() < now - clockSkew) {
+            throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages.JWT_PROCESS_ERROR.getCode(),
+                    "Expired JWT");
+        }
+        Date notBeforeTime = claimsSet.getNotBeforeTime();
+        if (notBeforeTime != null && notBeforeTime.getTime() > now + clockSkew) {
+            throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages.JWT_PROCESS_ERROR.getCode(),
+                    "JWT before use time");
+        }
+    }
+
+    /**
+     * Verify the signature with the verifiers of the key referenced by the credential.
+     */
+    void verifySignature(SignedJWT signedJWT, List<JWSVerifier> verifiers) throws AuthenticationFailedException {
+
+        long startTime = System.nanoTime();
+        boolean verified = false;
+        try {
+            for (JWSVerifier verifier : verifiers) {
+                if (signedJWT.verify(verifier)) {
+                    verified = true;
+                    return;
+                }
+            }
+        } catch (JOSEException e) {
+            throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages.JWT_PROCESS_ERROR.getCode(),
+                    e.getMessage());
+        } finally {
+            jwkSource.getMetrics().record(GoogleAuthenticatorMetrics.Phase.JWT_VERIFY, startTime, verified);
+        }
+        throw new AuthenticationFailedException(GoogleErrorConstants.ErrorMessages.JWT_PROCESS_ERROR.getCode(),
+                "Signed JWT rejected: Invalid signature");
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.jwt;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONValue;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stores the last fetched JWK set of a remote endpoint in a local file, so that the keys are available right
+ * after a restart without waiting for a fetch. Only the public keys are written.
+ * <p>
+ * The file is a JWK set document with the below additional members.
+ * <pre>
+ * {"jwks_uri": "...", "fetched_at": 1700000000000, "keys": [...]}
+ * </pre>
+ * How long a snapshot is used is decided by the reader from the fetch time, as the cache configuration may have
+ * changed since the snapshot was written.
+ */
+public class JWKSetSnapshotStore {
+
+    private static final Log LOG = LogFactory.getLog(JWKSetSnapshotStore.class);
+
+    private static final String JWKS_URI = "jwks_uri";
+    private static final String FETCHED_AT = "fetched_at";
+
+    private final Path snapshotFile;
+
+    public JWKSetSnapshotStore(Path snapshotFile) {
+
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Write the snapshot of a JWK set. The file is replaced atomically so that readers never see a partial file.
+     *
+     * @param jwkSetURL URL the JWK set was fetched from.
+     * @param jwkSet    The fetched JWK set.
+     * @param fetchedAt Time in milliseconds the JWK set was fetched.
+     */
+    public void save(URL jwkSetURL, JWKSet jwkSet, long fetchedAt) {
+
+        JSONObject snapshot = jwkSet.toJSONObject(true);
+        snapshot.put(JWKS_URI, jwkSetURL.toString());
+        snapshot.put(FETCHED_AT, fetchedAt);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+            tempFile = Files.createTempFile(snapshotFile.toAbsolutePath().getParent(),
+                    snapshotFile.getFileName().toString(), ".tmp");
+            Files.write(tempFile, snapshot.toJSONString().getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(tempFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Saved the JWK set snapshot of " + jwkSetURL + " to " + snapshotFile);
+            }
+        } catch (IOException e) {
+            LOG.warn("Error while saving the JWK set snapshot of " + jwkSetURL + " to " + snapshotFile, e);
+            deleteQuietly(tempFile);
+        }
+    }
+
+    /**
+     * Read the snapshot of a JWK set.
+     *
+     * @param jwkSetURL URL the JWK set is expected to be fetched from.
+     * @return The snapshot, or null if there is no readable snapshot of the given URL.
+     */
+    public Snapshot load(URL jwkSetURL) {
+
+        String content;
+        try {
+            content = new String(Files.readAllBytes(snapshotFile), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("No JWK set snapshot found at " + snapshotFile);
+            }
+            return null;
+        } catch (IOException e) {
+            LOG.warn("Error while reading the JWK set snapshot from " + snapshotFile, e);
+            return null;
+        }
+        try {
+            Object parsed = JSONValue.parseWithException(content);
+            if (!(parsed instanceof JSONObject)) {
+                LOG.warn("Ignoring the invalid JWK set snapshot at " + snapshotFile);
+                return null;
+            }
+            JSONObject snapshot = (JSONObject) parsed;
+            if (!jwkSetURL.toString().equals(snapshot.get(JWKS_URI))) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Ignoring the JWK set snapshot at " + snapshotFile + " as it is of " +
+                            snapshot.get(JWKS_URI));
+                }
+                return null;
+            }
+            Object fetchedAt = snapshot.get(FETCHED_AT);
+            if (!(fetchedAt instanceof Number)) {
+                LOG.warn("Ignoring the JWK set snapshot at " + snapshotFile + " without a fetch timestamp.");
+                return null;
+            }
+            long fetchedTime = ((Number) fetchedAt).longValue();
+            long now = System.currentTimeMillis();
+            if (fetchedTime > now) {
+                // A fetch time in the future, from a clock set back or an edited file, would keep the snapshot
+                // within the maximum stale age indefinitely, so it is treated as fetched now.
+                LOG.warn("The JWK set snapshot at " + snapshotFile + " was fetched at " + fetchedTime +
+                        ", which is in the future. Treating it as fetched now.");
+                fetchedTime = now;
+            }
+            return new Snapshot(JWKSet.parse(snapshot), fetchedTime);
+        } catch (net.minidev.json.parser.ParseException | java.text.ParseException e) {
+            LOG.warn("Ignoring the invalid JWK set snapshot at " + snapshotFile, e);
+            return null;
+        }
+    }
+
+    public Path getSnapshotFile() {
+
+        return snapshotFile;
+    }
+
+    private static void deleteQuietly(Path file) {
+
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Error while deleting the temporary file " + file, e);
+            }
+        }
+    }
+
+    /**
+     * A JWK set read from a snapshot file along with its fetch time.
+     */
+    public static class Snapshot {
+
+        private final JWKSet jwkSet;
+        private final long fetchedAt;
+
+        Snapshot(JWKSet jwkSet, long fetchedAt) {
+
+            this.jwkSet = jwkSet;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public JWKSet getJWKSet() {
+
+            return jwkSet;
+        }
+
+        /**
+         * Get the time the JWK set was fetched, never later than the time the snapshot was loaded.
+         *
+         * @return Fetch time in milliseconds.
+         */
+        public long getFetchedAt() {
+
+            return fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.jwt;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Immutable configuration of a {@link CachedJWKSource}. All the durations are in milliseconds.
+ */
+public class JWKSourceConfig {
+
+    private final URL jwkSetURL;
+    private final long timeToLive;
+    private final long refreshAheadTime;
+    private final long minRefreshInterval;
+    private final int unknownKeyIdCacheSize;
+    private final long unknownKeyIdCacheTTL;
+    private final Path snapshotFile;
+    private final long maxStaleAge;
+
+    /**
+     * Create a JWK source configuration.
+     *
+     * @param jwkSetURL             URL of the remote JWK set.
+     * @param timeToLive            Time a fetched JWK set is considered valid.
+     * @param refreshAheadTime      Time before expiry at which the JWK set is refreshed in the background.
+     * @param minRefreshInterval    Minimum time between two fetches of the JWK set.
+     * @param unknownKeyIdCacheSize Maximum number of unknown key IDs remembered.
+     * @param unknownKeyIdCacheTTL  Time an unknown key ID is remembered.
+     * @param snapshotFile          File to persist the last fetched JWK set to, or null to not persist it.
+     * @param maxStaleAge           Maximum age of a persisted JWK set which is used until a fetch completes.
+     */
+    public JWKSourceConfig(URL jwkSetURL, long timeToLive, long refreshAheadTime, long minRefreshInterval,
+                           int unknownKeyIdCacheSize, long unknownKeyIdCacheTTL, Path snapshotFile,
+                           long maxStaleAge) {
+
+        this.jwkSetURL = jwkSetURL;
+        this.timeToLive = timeToLive;
+        this.refreshAheadTime = Math.min(refreshAheadTime, timeToLive);
+        this.minRefreshInterval = minRefreshInterval;
+        this.unknownKeyIdCacheSize = unknownKeyIdCacheSize;
+        this.unknownKeyIdCacheTTL = unknownKeyIdCacheTTL;
+        this.snapshotFile = snapshotFile;
+        this.maxStaleAge = maxStaleAge;
+    }
+
+    public URL getJWKSetURL() {
+
+        return jwkSetURL;
+    }
+
+    public long getTimeToLive() {
+
+        return timeToLive;
+    }
+
+    public long getRefreshAheadTime() {
+
+        return refreshAheadTime;
+    }
+
+    public long getMinRefreshInterval() {
+
+        return minRefreshInterval;
+    }
+
+    public int getUnknownKeyIdCacheSize() {
+
+        return unknownKeyIdCacheSize;
+    }
+
+    public long getUnknownKeyIdCacheTTL() {
+
+        return unknownKeyIdCacheTTL;
+    }
+
+    public Path getSnapshotFile() {
+
+        return snapshotFile;
+    }
+
+    public long getMaxStaleAge() {
+
+        return maxStaleAge;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        JWKSourceConfig that = (JWKSourceConfig) o;
+        // URL.equals may resolve host names, hence the string forms are compared.
+        return jwkSetURL.toString().equals(that.jwkSetURL.toString())
+                && timeToLive == that.timeToLive
+                && refreshAheadTime == that.refreshAheadTime
+                && minRefreshInterval == that.minRefreshInterval
+                && unknownKeyIdCacheSize == that.unknownKeyIdCacheSize
+                && unknownKeyIdCacheTTL == that.unknownKeyIdCacheTTL
+                && Objects.equals(snapshotFile, that.snapshotFile)
+                && maxStaleAge == that.maxStaleAge;
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(jwkSetURL.toString(), timeToLive, refreshAheadTime, minRefreshInterval,
+                unknownKeyIdCacheSize, unknownKeyIdCacheTTL, snapshotFile, maxStaleAge);
+    }
+}
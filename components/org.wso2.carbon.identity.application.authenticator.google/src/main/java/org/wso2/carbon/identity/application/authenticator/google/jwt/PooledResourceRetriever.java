@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.jwt;
+
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpResponseException;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleHttpClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Retrieves the Google JWK sets over the pooled connections of the {@link GoogleHttpClient}. An unsuccessful
+ * response status fails with an {@link HttpResponseException} carrying the status, so that client errors are not
+ * retried by the {@link RetryingResourceRetriever}.
+ */
+public class PooledResourceRetriever implements ResourceRetriever {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final int sizeLimit;
+
+    /**
+     * Create a retriever.
+     *
+     * @param connectTimeout Connect timeout in milliseconds.
+     * @param readTimeout    Read timeout in milliseconds.
+     * @param sizeLimit      Maximum size of a response body in bytes.
+     */
+    public PooledResourceRetriever(int connectTimeout, int readTimeout, int sizeLimit) {
+
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.sizeLimit = sizeLimit;
+    }
+
+    @Override
+    public Resource retrieveResource(URL url) throws IOException {
+
+        return GoogleHttpClient.getInstance().get(url.toString(), connectTimeout, readTimeout,
+                response -> readResource(url, response));
+    }
+
+    private Resource readResource(URL url, HttpResponse response) throws IOException {
+
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode < 200 || statusCode >= 300) {
+            throw new HttpResponseException(statusCode, "Server returned HTTP response code: " + statusCode +
+                    " for URL: " + url);
+        }
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            throw new IOException("Empty response from URL: " + url);
+        }
+        Header contentType = entity.getContentType();
+        return new Resource(readContent(entity), contentType == null ? null : contentType.getValue());
+    }
+
+    private String readContent(HttpEntity entity) throws IOException {
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (InputStream inputStream = entity.getContent()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                if (content.size() + read > sizeLimit) {
+                    throw new IOException("Exceeded the configured input limit of " + sizeLimit + " bytes");
+                }
+                content.write(buffer, 0, read);
+            }
+        }
+        return new String(content.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
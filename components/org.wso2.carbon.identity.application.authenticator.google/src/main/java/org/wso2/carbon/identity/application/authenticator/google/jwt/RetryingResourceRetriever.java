@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.jwt;
+
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleRetryPolicy;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Retrieves the Google JWK sets, retrying transient failures within the shared {@link GoogleRetryPolicy} budget.
+ */
+public class RetryingResourceRetriever implements ResourceRetriever {
+
+    private static final String JWKS_ENDPOINT = "JWKS";
+
+    private final ResourceRetriever resourceRetriever;
+
+    public RetryingResourceRetriever(ResourceRetriever resourceRetriever) {
+
+        this.resourceRetriever = resourceRetriever;
+    }
+
+    @Override
+    public Resource retrieveResource(URL url) throws IOException {
+
+        return GoogleRetryPolicy.getInstance().execute(JWKS_ENDPOINT, () -> resourceRetriever.retrieveResource(url));
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-login breakdown of the time spent in each phase of the Google authenticator, collected on the thread
+ * processing the authentication response so that it can be attached to a diagnostic log event. A trace is only
+ * started while diagnostic logs are enabled; recording is a no-op otherwise.
+ */
+public final class AuthenticationTrace {
+
+    private static final ThreadLocal<AuthenticationTrace> CURRENT = new ThreadLocal<>();
+
+    private final long startTime = System.nanoTime();
+    private final Map<String, Double> phaseStartOffsets = new LinkedHashMap<>();
+    private final Map<String, Double> phaseDurations = new LinkedHashMap<>();
+    private final Map<String, Boolean> flags = new LinkedHashMap<>();
+
+    private AuthenticationTrace() {
+
+    }
+
+    /**
+     * Start a trace on the current thread, replacing any trace left behind.
+     *
+     * @return The started trace.
+     */
+    public static AuthenticationTrace start() {
+
+        AuthenticationTrace trace = new AuthenticationTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * End the trace of the current thread.
+     */
+    public static void end() {
+
+        CURRENT.remove();
+    }
+
+    /**
+     * Record a completed phase in the trace of the current thread, if there is one. The durations of a phase
+     * completed more than once are added up, and its first start is kept.
+     *
+     * @param phase          Name of the phase.
+     * @param phaseStartTime Start time of the phase from {@link System#nanoTime()}.
+     */
+    public static void recordPhase(String phase, long phaseStartTime) {
+
+        recordPhase(phase, phaseStartTime, System.nanoTime() - phaseStartTime);
+    }
+
+    /**
+     * Record a phase which completed earlier, possibly on another thread, in the trace of the current thread.
+     *
+     * @param phase          Name of the phase.
+     * @param phaseStartTime Start time of the phase from {@link System#nanoTime()}.
+     * @param phaseDuration  Duration of the phase in nanoseconds.
+     */
+    public static void recordPhase(String phase, long phaseStartTime, long phaseDuration) {
+
+        AuthenticationTrace trace = CURRENT.get();
+        if (trace == null) {
+            return;
+        }
+        trace.phaseStartOffsets.putIfAbsent(phase, toMillis(phaseStartTime - trace.startTime));
+        trace.phaseDurations.merge(phase, toMillis(phaseDuration), Double::sum);
+    }
+
+    /**
+     * Record an outcome, such as a cache hit, in the trace of the current thread, if there is one.
+     *
+     * @param flag  Name of the outcome.
+     * @param value The outcome.
+     */
+    public static void recordFlag(String flag, boolean value) {
+
+        AuthenticationTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.flags.put(flag, value);
+        }
+    }
+
+    /**
+     * Get the start of each phase in milliseconds, relative to the start of the trace.
+     *
+     * @return Phase start offsets.
+     */
+    public Map<String, Double> getPhaseStartOffsets() {
+
+        return Collections.unmodifiableMap(phaseStartOffsets);
+    }
+
+    /**
+     * Get the duration of each phase in milliseconds.
+     *
+     * @return Phase durations.
+     */
+    public Map<String, Double> getPhaseDurations() {
+
+        return Collections.unmodifiableMap(phaseDurations);
+    }
+
+    public Map<String, Boolean> getFlags() {
+
+        return Collections.unmodifiableMap(flags);
+    }
+
+    public double getElapsedMillis() {
+
+        return toMillis(System.nanoTime() - startTime);
+    }
+
+    private static double toMillis(long nanos) {
+
+        // Rounded to microseconds to keep the log events short.
+        return Math.round(nanos / (double) TimeUnit.MICROSECONDS.toNanos(1)) / 1000.0;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.metrics;
+
+import org.wso2.carbon.identity.application.authenticator.google.GoogleErrorConstants;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide latency and outcome metrics of the Google authenticator. The metrics are exposed over JMX by
+ * {@link GoogleAuthenticatorMetricsMBean}, and the phases are also added to the {@link AuthenticationTrace} of the
+ * current login.
+ */
+public class GoogleAuthenticatorMetrics {
+
+    private static final GoogleAuthenticatorMetrics INSTANCE = new GoogleAuthenticatorMetrics(true);
+    private static final GoogleAuthenticatorMetrics NO_OP = new GoogleAuthenticatorMetrics(false);
+
+    /**
+     * Timed phases of the authentication flows.
+     */
+    public enum Phase {
+
+        JWKS_FETCH("JwksFetch"),
+        JWT_PARSE("JwtParse"),
+        JWT_VERIFY("JwtVerify"),
+        TOKEN_EXCHANGE("TokenExchange"),
+        USER_INFO_FETCH("UserInfoFetch"),
+        CLAIM_MAPPING("ClaimMapping");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+
+            return metricName;
+        }
+    }
+
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private final Map<String, LongAdder> errorCounts;
+    private final LongAdder jwksKeyCacheHitCount = new LongAdder();
+    private final LongAdder jwksKeyCacheMissCount = new LongAdder();
+    private final LongAdder csrfFailureCount = new LongAdder();
+    private final boolean recording;
+
+    private GoogleAuthenticatorMetrics(boolean recording) {
+
+        this.recording = recording;
+
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+        Map<String, LongAdder> errors = new LinkedHashMap<>();
+        for (GoogleErrorConstants.ErrorMessages errorMessage : GoogleErrorConstants.ErrorMessages.values()) {
+            errors.put(errorMessage.getCode(), new LongAdder());
+        }
+        errorCounts = Collections.unmodifiableMap(errors);
+    }
+
+    public static GoogleAuthenticatorMetrics getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Get metrics which discard everything recorded, for synthetic work such as the warm-up which should neither
+     * show up in the process-wide metrics nor in the trace of a login.
+     *
+     * @return The no-op metrics.
+     */
+    public static GoogleAuthenticatorMetrics noOp() {
+
+        return NO_OP;
+    }
+
+    /**
+     * Record a completed phase.
+     *
+     * @param phase     The phase.
+     * @param startTime Start time of the phase from {@link System#nanoTime()}.
+     * @param success   Whether the phase succeeded.
+     */
+    public void record(Phase phase, long startTime, boolean success) {
+
+        record(phase, startTime, System.nanoTime() - startTime, success);
+    }
+
+    /**
+     * Record a phase which completed earlier, possibly on another thread. The phase is added to the trace of the
+     * current thread.
+     *
+     * @param phase     The phase.
+     * @param startTime Start time of the phase from {@link System#nanoTime()}.
+     * @param duration  Duration of the phase in nanoseconds.
+     * @param success   Whether the phase succeeded.
+     */
+    public void record(Phase phase, long startTime, long duration, boolean success) {
+
+        if (!recording) {
+            return;
+        }
+        histograms.get(phase).record(duration, success);
+        AuthenticationTrace.recordPhase(phase.getMetricName(), startTime, duration);
+    }
+
+    /**
+     * Record a Google authenticator error.
+     *
+     * @param errorCode Error code of the failure. Codes which are not defined by the authenticator are ignored.
+     */
+    public void recordError(String errorCode) {
+
+        LongAdder errorCount = errorCode == null || !recording ? null : errorCounts.get(errorCode);
+        if (errorCount != null) {
+            errorCount.increment();
+        }
+    }
+
+    public void recordJWKSKeyCacheHit() {
+
+        if (!recording) {
+            return;
+        }
+        jwksKeyCacheHitCount.increment();
+        AuthenticationTrace.recordFlag("JwksKeyCacheHit", true);
+    }
+
+    public void recordJWKSKeyCacheMiss() {
+
+        if (!recording) {
+            return;
+        }
+        jwksKeyCacheMissCount.increment();
+        AuthenticationTrace.recordFlag("JwksKeyCacheHit", false);
+    }
+
+    public void recordCSRFFailure() {
+
+        if (recording) {
+            csrfFailureCount.increment();
+        }
+    }
+
+    public LatencyHistogram getHistogram(Phase phase) {
+
+        return histograms.get(phase);
+    }
+
+    public long getErrorCount(String errorCode) {
+
+        LongAdder errorCount = errorCounts.get(errorCode);
+        return errorCount == null ? 0 : errorCount.sum();
+    }
+
+    public long getJWKSKeyCacheHitCount() {
+
+        return jwksKeyCacheHitCount.sum();
+    }
+
+    public long getJWKSKeyCacheMissCount() {
+
+        return jwksKeyCacheMissCount.sum();
+    }
+
+    public long getCSRFFailureCount() {
+
+        return csrfFailureCount.sum();
+    }
+
+    /**
+     * Discard all the recorded metrics.
+     */
+    public void reset() {
+
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        for (LongAdder errorCount : errorCounts.values()) {
+            errorCount.reset();
+        }
+        jwksKeyCacheHitCount.reset();
+        jwksKeyCacheMissCount.reset();
+        csrfFailureCount.reset();
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.metrics;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.pool.PoolStats;
+import org.wso2.carbon.identity.application.authenticator.google.GoogleErrorConstants;
+import org.wso2.carbon.identity.application.authenticator.google.cache.BoundedCache;
+import org.wso2.carbon.identity.application.authenticator.google.cache.GoogleUserInfoCache;
+import org.wso2.carbon.identity.application.authenticator.google.http.CircuitBreaker;
+import org.wso2.carbon.identity.application.authenticator.google.http.EndpointGuard;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleHttpClient;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleOutboundExecutor;
+import org.wso2.carbon.identity.application.authenticator.google.http.GoogleRetryPolicy;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.CachedJWKSource;
+import org.wso2.carbon.identity.application.authenticator.google.jwt.GoogleJWKSetCache;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Read-only JMX view of the {@link GoogleAuthenticatorMetrics}, the caches and the HTTP connection pool of the
+ * Google authenticator. The attribute values are computed when they are read, hence exposing them does not add any
+ * cost to the authentication flows.
+ */
+public class GoogleAuthenticatorMetricsMBean implements DynamicMBean {
+
+    public static final String OBJECT_NAME =
+            "org.wso2.carbon.identity.application.authenticator.google:type=GoogleAuthenticatorMetrics";
+
+    private static final Log LOG = LogFactory.getLog(GoogleAuthenticatorMetricsMBean.class);
+    private static final String RESET_OPERATION = "reset";
+
+    private final Map<String, Supplier<Object>> attributes = new LinkedHashMap<>();
+    private final MBeanInfo mBeanInfo;
+
+    public GoogleAuthenticatorMetricsMBean() {
+
+        GoogleAuthenticatorMetrics metrics = GoogleAuthenticatorMetrics.getInstance();
+        List<MBeanAttributeInfo> attributeInfos = new ArrayList<>();
+        for (GoogleAuthenticatorMetrics.Phase phase : GoogleAuthenticatorMetrics.Phase.values()) {
+            LatencyHistogram histogram = metrics.getHistogram(phase);
+            String name = phase.getMetricName();
+            addAttribute(attributeInfos, name + "Count", Long.class, histogram::getCount);
+            addAttribute(attributeInfos, name + "Failures", Long.class, histogram::getFailureCount);
+            addAttribute(attributeInfos, name + "MeanMillis", Double.class, histogram::getMeanMillis);
+            addAttribute(attributeInfos, name + "P50Millis", Double.class,
+                    () -> histogram.getPercentileMillis(0.50));
+            addAttribute(attributeInfos, name + "P99Millis", Double.class,
+                    () -> histogram.getPercentileMillis(0.99));
+            addAttribute(attributeInfos, name + "MaxMillis", Double.class, histogram::getMaxMillis);
+        }
+        for (GoogleErrorConstants.ErrorMessages errorMessage : GoogleErrorConstants.ErrorMessages.values()) {
+            addAttribute(attributeInfos, "Errors" + errorMessage.getCode(), Long.class,
+                    () -> metrics.getErrorCount(errorMessage.getCode()));
+        }
+        addAttribute(attributeInfos, "CsrfFailures", Long.class, metrics::getCSRFFailureCount);
+
+        addAttribute(attributeInfos, "JwksKeyCacheHits", Long.class, metrics::getJWKSKeyCacheHitCount);
+        addAttribute(attributeInfos, "JwksKeyCacheMisses", Long.class, metrics::getJWKSKeyCacheMissCount);
+        addAttribute(attributeInfos, "JwksFetchFailures", Long.class,
+                () -> sumJWKSources(CachedJWKSource::getFetchFailureCount));
+        addAttribute(attributeInfos, "JwksCoalescedRefreshes", Long.class,
+                () -> sumJWKSources(CachedJWKSource::getCoalescedRefreshCount));
+        addAttribute(attributeInfos, "JwksRateLimitedRefreshes", Long.class,
+                () -> sumJWKSources(CachedJWKSource::getRateLimitedRefreshCount));
+        addAttribute(attributeInfos, "JwksUnknownKidRejections", Long.class,
+                () -> sumJWKSources(CachedJWKSource::getUnknownKeyIdRejectionCount));
+        addAttribute(attributeInfos, "JwksRateLimitedUnknownKids", Long.class,
+                () -> sumJWKSources(CachedJWKSource::getRateLimitedUnknownKeyIdCount));
+
+        addAttribute(attributeInfos, "UserInfoCacheHits", Long.class,
+                () -> getUserInfoCacheStatistic(BoundedCache::getHitCount));
+        addAttribute(attributeInfos, "UserInfoCacheMisses", Long.class,
+                () -> getUserInfoCacheStatistic(BoundedCache::getMissCount));
+        addAttribute(attributeInfos, "UserInfoCacheSize", Long.class,
+                () -> getUserInfoCacheStatistic(BoundedCache::size));
+        addAttribute(attributeInfos, "UserInfoCacheEvictions", Long.class,
+                () -> getUserInfoCacheStatistic(BoundedCache::getEvictionCount));
+        addAttribute(attributeInfos, "UserInfoCacheExpirations", Long.class,
+                () -> getUserInfoCacheStatistic(BoundedCache::getExpirationCount));
+
+        addAttribute(attributeInfos, "HttpPoolLeased", Integer.class, () -> getPoolStats().getLeased());
+        addAttribute(attributeInfos, "HttpPoolAvailable", Integer.class, () -> getPoolStats().getAvailable());
+        addAttribute(attributeInfos, "HttpPoolPending", Integer.class, () -> getPoolStats().getPending());
+        addAttribute(attributeInfos, "HttpPoolMax", Integer.class, () -> getPoolStats().getMax());
+        GoogleOutboundExecutor outboundExecutor = GoogleOutboundExecutor.getInstance();
+        addAttribute(attributeInfos, "OutboundExecutorVirtualThreads", Boolean.class,
+                outboundExecutor::isVirtualThreads);
+        addAttribute(attributeInfos, "OutboundExecutorActive", Integer.class, outboundExecutor::getActiveCount);
+        addAttribute(attributeInfos, "OutboundExecutorQueued", Integer.class, outboundExecutor::getQueueSize);
+        addAttribute(attributeInfos, "OutboundExecutorRejections", Long.class, outboundExecutor::getRejectedCount);
+        GoogleRetryPolicy retryPolicy = GoogleRetryPolicy.getInstance();
+        addAttribute(attributeInfos, "HttpRetries", Long.class, retryPolicy::getRetryCount);
+        addAttribute(attributeInfos, "HttpRetryBudgetExhausted", Long.class, retryPolicy::getBudgetExhaustedCount);
+        for (String endpoint : new String[]{GoogleHttpClient.TOKEN_ENDPOINT, GoogleHttpClient.USER_INFO_ENDPOINT}) {
+            addAttribute(attributeInfos, endpoint + "ConcurrentCalls", Integer.class,
+                    () -> getEndpointGuard(endpoint).getConcurrentCalls());
+            addAttribute(attributeInfos, endpoint + "BulkheadRejections", Long.class,
+                    () -> getEndpointGuard(endpoint).getBulkheadRejectedCount());
+            addAttribute(attributeInfos, endpoint + "CircuitState", String.class, () -> {
+                CircuitBreaker circuitBreaker = getEndpointGuard(endpoint).getCircuitBreaker();
+                return circuitBreaker == null ? "DISABLED" : circuitBreaker.getState().name();
+            });
+            addAttribute(attributeInfos, endpoint + "CircuitOpenings", Long.class,
+                    () -> getCircuitBreakerStatistic(endpoint, CircuitBreaker::getOpenedCount));
+            addAttribute(attributeInfos, endpoint + "CircuitRejections", Long.class,
+                    () -> getCircuitBreakerStatistic(endpoint, CircuitBreaker::getRejectedCount));
+        }
+
+        MBeanOperationInfo reset = new MBeanOperationInfo(RESET_OPERATION, "Discard the recorded latencies and " +
+                "error counts.", new MBeanParameterInfo[0], void.class.getName(), MBeanOperationInfo.ACTION);
+        mBeanInfo = new MBeanInfo(getClass().getName(), "Google authenticator metrics",
+                attributeInfos.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[]{reset}, null);
+    }
+
+    /**
+     * Register the metrics in the platform MBean server.
+     */
+    public static void register() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(new GoogleAuthenticatorMetricsMBean(), objectName);
+            }
+        } catch (JMException e) {
+            LOG.warn("Error while registering the Google authenticator metrics MBean.", e);
+        }
+    }
+
+    /**
+     * Remove the metrics from the platform MBean server.
+     */
+    public static void unregister() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            LOG.warn("Error while unregistering the Google authenticator metrics MBean.", e);
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+
+        Supplier<Object> value = attributes.get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException("No such attribute : " + attribute);
+        }
+        return value.get();
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+
+        throw new AttributeNotFoundException("Attribute " + attribute.getName() + " is read-only.");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] names) {
+
+        AttributeList list = new AttributeList();
+        for (String name : names) {
+            Supplier<Object> value = attributes.get(name);
+            if (value != null) {
+                list.add(new Attribute(name, value.get()));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList list) {
+
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+
+        if (RESET_OPERATION.equals(actionName)) {
+            GoogleAuthenticatorMetrics.getInstance().reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName), "No such operation : " + actionName);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+
+        return mBeanInfo;
+    }
+
+    private <T> void addAttribute(List<MBeanAttributeInfo> attributeInfos, String name, Class<T> type,
+                                  Supplier<T> value) {
+
+        attributes.put(name, value::get);
+        attributeInfos.add(new MBeanAttributeInfo(name, type.getName(), name, true, false, false));
+    }
+
+    private static long sumJWKSources(ToLongFunction<CachedJWKSource> counter) {
+
+        long sum = 0;
+        for (JWSAlgorithm algorithm : new JWSAlgorithm[]{JWSAlgorithm.RS256, JWSAlgorithm.ES256}) {
+            CachedJWKSource jwkSource = GoogleJWKSetCache.getInstance().getJWKSource(algorithm);
+            if (jwkSource != null) {
+                sum += counter.applyAsLong(jwkSource);
+            }
+        }
+        return sum;
+    }
+
+    private static long getUserInfoCacheStatistic(ToLongFunction<BoundedCache<String, Map<String, Object>>>
+                                                          statistic) {
+
+        BoundedCache<String, Map<String, Object>> cache = GoogleUserInfoCache.getInstance().getCache();
+        return cache == null ? 0 : statistic.applyAsLong(cache);
+    }
+
+    private static EndpointGuard getEndpointGuard(String endpoint) {
+
+        return GoogleHttpClient.getInstance().getEndpointGuard(endpoint);
+    }
+
+    private static long getCircuitBreakerStatistic(String endpoint, ToLongFunction<CircuitBreaker> statistic) {
+
+        CircuitBreaker circuitBreaker = getEndpointGuard(endpoint).getCircuitBreaker();
+        return circuitBreaker == null ? 0 : statistic.applyAsLong(circuitBreaker);
+    }
+
+    private static PoolStats getPoolStats() {
+
+        return GoogleHttpClient.getInstance().getConnectionManager().getTotalStats();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authenticator.google.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with power of two microsecond buckets. Recording only increments striped counters,
+ * hence concurrent logins do not contend on it. Percentiles are estimated as the upper bound of the bucket the
+ * percentile falls in, which is at most twice the actual value.
+ */
+public class LatencyHistogram {
+
+    // Bucket i holds the latencies below 2^i microseconds, the last bucket holds everything above.
+    private static final int BUCKET_COUNT = 28;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a completed operation.
+     *
+     * @param nanos   Time taken by the operation in nanoseconds.
+     * @param success Whether the operation succeeded.
+     */
+    public void record(long nanos, boolean success) {
+
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        int bucket = micros == 0 ? 0 : Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (!success) {
+            failureCount.increment();
+        }
+    }
+
+    public long getCount() {
+
+        return count.sum();
+    }
+
+    public long getFailureCount() {
+
+        return failureCount.sum();
+    }
+
+    public double getMeanMillis() {
+
+        long total = count.sum();
+        return total == 0 ? 0 : toMillis(totalNanos.sum()) / total;
+    }
+
+    public double getMaxMillis() {
+
+        return toMillis(maxNanos.get());
+    }
+
+    /**
+     * Estimate a percentile of the recorded latencies.
+     *
+     * @param percentile The percentile, between 0 and 1.
+     * @return The estimated latency in milliseconds.
+     */
+    public double getPercentileMillis(double percentile) {
+
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min((1L << i) / 1000.0, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Discard the recorded latencies. Operations recorded concurrently may be partially retained.
+     */
+    public void reset() {
+
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        failureCount.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    private static double toMillis(long nanos) {
+
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}